@@ -0,0 +1,121 @@
+// CampusBenchmarkWorkload.java
+import ugnavigate.bench.RoutingWorkload;
+
+import java.util.*;
+
+// Bridge between the JMH benchmarks (which JMH requires to live in a named package)
+// and the routing classes in the default package. Loaded reflectively by RoutingWorkload.
+public class CampusBenchmarkWorkload implements RoutingWorkload {
+    private static final int PAIRS = 1024;
+    private static final String LANDMARK = "library";
+
+    private SyntheticCampus campus;
+    private RouteCalculator calculator;
+    private String[] origins;
+    private String[] destinations;
+
+    public CampusBenchmarkWorkload() {
+    }
+
+    @Override
+    public void setUp(String campusSpec, long seed) {
+        String[] parts = campusSpec.split("-");
+        int nodes = Integer.parseInt(parts[1]);
+        campus = parts[0].equals("complete")
+                ? SyntheticCampus.complete(nodes, seed)
+                : SyntheticCampus.sparse(nodes, seed);
+        calculator = campus.newRouteCalculator();
+
+        // Fixed pseudo-random origin/destination pairs
+        List<String> names = new ArrayList<>(campus.locations.keySet());
+        Random random = new Random(seed);
+        origins = new String[PAIRS];
+        destinations = new String[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            origins[i] = names.get(random.nextInt(names.size()));
+            do {
+                destinations[i] = names.get(random.nextInt(names.size()));
+            } while (destinations[i].equals(origins[i]));
+        }
+    }
+
+    @Override
+    public int pairCount() {
+        return PAIRS;
+    }
+
+    @Override
+    public Object dijkstra(int pair) {
+        return calculator.findRoutesDijkstra(origins[pair], destinations[pair]);
+    }
+
+    @Override
+    public Object floydWarshall(int pair) {
+        return calculator.findRoutesFloydWarshall(origins[pair], destinations[pair]);
+    }
+
+    @Override
+    public Object precomputeAllPairs() {
+        return AllPairsTable.compute(calculator.getGraph(), CampusGraph.Metric.DISTANCE);
+    }
+
+    @Override
+    public Object aStar(int pair) {
+        return calculator.findRoutesAStar(origins[pair], destinations[pair]);
+    }
+
+    @Override
+    public Object bidirectionalAStar(int pair) {
+        return calculator.findRoutesBidirectionalAStar(origins[pair], destinations[pair]);
+    }
+
+    @Override
+    public Object alt(int pair) {
+        return calculator.findRoutesALT(origins[pair], destinations[pair]);
+    }
+
+    @Override
+    public void setReferenceCount(int count) {
+        calculator.setReferenceCount(count);
+    }
+
+    @Override
+    public int nodesExpanded(Object routes) {
+        List<?> list = (List<?>) routes;
+        return list.isEmpty() ? 0 : ((Route) list.get(0)).nodesExpanded;
+    }
+
+    @Override
+    public Object contractionHierarchy(int pair) {
+        return calculator.findRoutesContractionHierarchy(origins[pair], destinations[pair]);
+    }
+
+    @Override
+    public Object precomputeContractionHierarchy() {
+        return ContractionHierarchy.build(calculator.getGraph(), CampusGraph.Metric.DISTANCE);
+    }
+
+    @Override
+    public Object vogel(int pair) {
+        return calculator.findRoutesVogel(origins[pair], destinations[pair]);
+    }
+
+    @Override
+    public Object northwestCorner(int pair) {
+        return calculator.findRoutesNorthwestCorner(origins[pair], destinations[pair]);
+    }
+
+    @Override
+    public Object throughLandmark(int pair) {
+        return calculator.findRoutesThroughLandmark(origins[pair], destinations[pair], LANDMARK);
+    }
+
+    @Override
+    public Object greedy(int pair) {
+        return campus.isComplete()
+                ? PathfindingAlgorithms.GreedyRouter.findGreedyRoute(origins[pair], destinations[pair],
+                        campus.locations, campus.distanceMatrix)
+                : PathfindingAlgorithms.GreedyRouter.findGreedyRoute(origins[pair], destinations[pair],
+                        calculator.getGraph());
+    }
+}
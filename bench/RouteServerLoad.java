@@ -0,0 +1,125 @@
+// RouteServerLoad.java
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Load generator for RouteServer: starts the service on a free localhost port and fires
+// route requests from thousands of concurrent virtual-thread clients, then reports the
+// latency percentiles and how many requests were coalesced onto an identical one.
+// Fewer distinct queries means more identical requests in flight at once.
+//
+//   java -cp target/benchmarks.jar RouteServerLoad [--requests 20000] [--concurrency 2000]
+//        [--distinct 200] [--campus ug|sparse-2000] [--algorithm dijkstra]
+public class RouteServerLoad {
+    public static void main(String[] args) throws Exception {
+        int requests = 20000;
+        int concurrency = 2000;
+        int distinct = 200;
+        String campus = "ug";
+        String algorithm = "dijkstra";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--requests":
+                    requests = Integer.parseInt(args[++i]);
+                    break;
+                case "--concurrency":
+                    concurrency = Integer.parseInt(args[++i]);
+                    break;
+                case "--distinct":
+                    distinct = Integer.parseInt(args[++i]);
+                    break;
+                case "--campus":
+                    campus = args[++i];
+                    break;
+                case "--algorithm":
+                    algorithm = args[++i];
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        RouteCalculator calculator;
+        List<String> names;
+        if (campus.equals("ug")) {
+            Map<String, Location> locations = CampusData.createLocations();
+            calculator = new RouteCalculator(locations, CampusData.createWalkways(locations));
+            names = new ArrayList<>(locations.keySet());
+        } else {
+            SyntheticCampus synthetic = SyntheticCampus.sparse(Integer.parseInt(campus.split("-")[1]), 42);
+            calculator = synthetic.newRouteCalculator();
+            names = new ArrayList<>(synthetic.locations.keySet());
+        }
+
+        RouteServer server = new RouteServer(calculator, new InetSocketAddress("127.0.0.1", 0));
+        server.start();
+
+        // Fixed pseudo-random pool of distinct queries, drawn from uniformly
+        Random random = new Random(42);
+        URI[] queries = new URI[distinct];
+        for (int i = 0; i < distinct; i++) {
+            String from = names.get(random.nextInt(names.size()));
+            String to;
+            do {
+                to = names.get(random.nextInt(names.size()));
+            } while (to.equals(from));
+            queries[i] = URI.create("http://127.0.0.1:" + server.port() + "/route?algorithm=" + algorithm
+                    + "&from=" + URLEncoder.encode(from, StandardCharsets.UTF_8)
+                    + "&to=" + URLEncoder.encode(to, StandardCharsets.UTF_8));
+        }
+
+        long[] latencies = new long[requests];
+        AtomicInteger failures = new AtomicInteger();
+        Semaphore slots = new Semaphore(concurrency);
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        long start = System.nanoTime();
+        try (clients) {
+            for (int i = 0; i < requests; i++) {
+                URI uri = queries[random.nextInt(distinct)];
+                int index = i;
+                slots.acquire();
+                clients.execute(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(uri).build(),
+                                HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() != 200) failures.incrementAndGet();
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - sent;
+                        slots.release();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        server.stop();
+
+        Arrays.sort(latencies);
+        System.out.printf("%d requests (%d distinct, %d concurrent) in %.2f s: %.0f req/s, %d failed%n",
+                requests, distinct, concurrency, seconds, requests / seconds, failures.get());
+        System.out.printf("latency ms: p50 %.2f  p90 %.2f  p99 %.2f  max %.2f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                latencies[latencies.length - 1] / 1e6);
+        System.out.printf("coalesced onto an in-flight identical query: %d (%.1f%%)%n",
+                server.coalescedCount(), 100.0 * server.coalescedCount() / requests);
+    }
+
+    private static double percentile(long[] sorted, double q) {
+        int rank = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, rank)] / 1e6;
+    }
+}
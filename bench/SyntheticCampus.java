@@ -0,0 +1,123 @@
+// SyntheticCampus.java
+import java.util.*;
+
+// Generates campus-like maps of arbitrary size for benchmarks: locations on a jittered
+// grid with typed names ("Library 12", "Hall 40", ...) and either a sparse walkway
+// network or the complete straight-line distance/time matrices the app used to build.
+final class SyntheticCampus {
+    private static final int SPACING = 20;
+    private static final String[] NAMES = {
+            "Hall", "Library", "Cafeteria", "School", "Bank", "Clinic",
+            "Office", "Gate", "Institute", "Field", "Auditorium"
+    };
+    private static final LocationType[] TYPES = {
+            LocationType.RESIDENTIAL, LocationType.ACADEMIC, LocationType.DINING, LocationType.ACADEMIC,
+            LocationType.BANKING, LocationType.MEDICAL, LocationType.ADMINISTRATIVE, LocationType.ENTRANCE,
+            LocationType.RESEARCH, LocationType.RECREATION, LocationType.EVENT
+    };
+
+    final Map<String, Location> locations;
+    final List<Walkway> walkways;
+    final Map<String, Map<String, Double>> distanceMatrix;
+    final Map<String, Map<String, Double>> timeMatrix;
+
+    private SyntheticCampus(Map<String, Location> locations, List<Walkway> walkways,
+                            Map<String, Map<String, Double>> distanceMatrix,
+                            Map<String, Map<String, Double>> timeMatrix) {
+        this.locations = locations;
+        this.walkways = walkways;
+        this.distanceMatrix = distanceMatrix;
+        this.timeMatrix = timeMatrix;
+    }
+
+    // Grid walkways: every vertical segment and the first row are always present so the
+    // campus is connected; other horizontal segments and diagonals are random
+    public static SyntheticCampus sparse(int nodes, long seed) {
+        Random random = new Random(seed);
+        Map<String, Location> locations = generateLocations(nodes, random);
+        List<Location> grid = new ArrayList<>(locations.values());
+        int side = gridSide(nodes);
+
+        List<Walkway> walkways = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            int row = i / side;
+            int col = i % side;
+            if (col + 1 < side && i + 1 < nodes && (row == 0 || random.nextDouble() < 0.85)) {
+                walkways.add(walkway(grid.get(i), grid.get(i + 1), random));
+            }
+            if (i + side < nodes) {
+                walkways.add(walkway(grid.get(i), grid.get(i + side), random));
+            }
+            if (col + 1 < side && i + side + 1 < nodes && random.nextDouble() < 0.1) {
+                walkways.add(walkway(grid.get(i), grid.get(i + side + 1), random));
+            }
+        }
+        return new SyntheticCampus(locations, walkways, null, null);
+    }
+
+    // Every location connected to every other, as initializeDistanceMatrix() used to do
+    public static SyntheticCampus complete(int nodes, long seed) {
+        Map<String, Location> locations = generateLocations(nodes, new Random(seed));
+        Map<String, Map<String, Double>> distanceMatrix = new HashMap<>();
+        Map<String, Map<String, Double>> timeMatrix = new HashMap<>();
+
+        for (Location l1 : locations.values()) {
+            Map<String, Double> distances = new HashMap<>();
+            Map<String, Double> times = new HashMap<>();
+            for (Location l2 : locations.values()) {
+                double distance = l1 == l2 ? 0.0 : straightLine(l1, l2);
+                distances.put(l2.name, distance);
+                times.put(l2.name, walkingTime(l1, l2, distance));
+            }
+            distanceMatrix.put(l1.name, distances);
+            timeMatrix.put(l1.name, times);
+        }
+        return new SyntheticCampus(locations, null, distanceMatrix, timeMatrix);
+    }
+
+    public boolean isComplete() {
+        return distanceMatrix != null;
+    }
+
+    public RouteCalculator newRouteCalculator() {
+        return isComplete()
+                ? new RouteCalculator(locations, distanceMatrix, timeMatrix)
+                : new RouteCalculator(locations, walkways);
+    }
+
+    private static Map<String, Location> generateLocations(int nodes, Random random) {
+        Map<String, Location> locations = new LinkedHashMap<>();
+        int side = gridSide(nodes);
+        for (int i = 0; i < nodes; i++) {
+            int kind = i % NAMES.length;
+            String name = NAMES[kind] + " " + i;
+            int x = (i % side) * SPACING + random.nextInt(SPACING / 2);
+            int y = (i / side) * SPACING + random.nextInt(SPACING / 2);
+            locations.put(name, new Location(name, x, y, TYPES[kind]));
+        }
+        return locations;
+    }
+
+    private static int gridSide(int nodes) {
+        return (int) Math.ceil(Math.sqrt(nodes));
+    }
+
+    // Walkways meander a little, so they are never shorter than the straight line
+    private static Walkway walkway(Location l1, Location l2, Random random) {
+        double length = straightLine(l1, l2) * (1.0 + random.nextDouble() * 0.3);
+        return new Walkway(l1.name, l2.name, length, walkingTime(l1, l2, length));
+    }
+
+    private static double straightLine(Location l1, Location l2) {
+        return Math.sqrt(Math.pow(l2.x - l1.x, 2) + Math.pow(l2.y - l1.y, 2)) * 2.5;
+    }
+
+    // Same walking speed and traffic factors as UGNavigateApp
+    private static double walkingTime(Location l1, Location l2, double distance) {
+        double baseTime = distance / (5000.0 / 60.0);
+        if (l1.type == LocationType.DINING || l2.type == LocationType.DINING) return baseTime * 1.3;
+        if (l1.type == LocationType.ACADEMIC || l2.type == LocationType.ACADEMIC) return baseTime * 1.1;
+        if (l1.type == LocationType.ADMINISTRATIVE || l2.type == LocationType.ADMINISTRATIVE) return baseTime * 1.2;
+        return baseTime;
+    }
+}
@@ -0,0 +1,140 @@
+// UpdateRaceCheck.java
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Regression check for queries that overlap walkway updates: one thread keeps closing and
+// reopening walkways while the others route random pairs with every algorithm. Each route
+// must be walkable, hop by hop, on the graph it claims to be on, and no query may throw.
+// Exits 1 on any failure.
+//
+//   java -cp target/benchmarks.jar UpdateRaceCheck [--seconds 8] [--threads 4] [--campus ug|sparse-2000]
+public class UpdateRaceCheck {
+    private static final String[] ALGORITHMS = {"dijkstra", "astar", "bidirectional", "alt", "ch",
+            "vogel", "northwest", "floyd-warshall", "time-dependent", "landmark", "nearest"};
+
+    public static void main(String[] args) throws Exception {
+        int seconds = 8;
+        int threads = 4;
+        String campus = "ug";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seconds":
+                    seconds = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--campus":
+                    campus = args[++i];
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        RouteCalculator calculator;
+        List<String> names;
+        if (campus.equals("ug")) {
+            Map<String, Location> locations = CampusData.createLocations();
+            calculator = new RouteCalculator(locations, CampusData.createWalkways(locations));
+            names = new ArrayList<>(locations.keySet());
+        } else {
+            SyntheticCampus synthetic = SyntheticCampus.sparse(Integer.parseInt(campus.split("-")[1]), 42);
+            calculator = synthetic.newRouteCalculator();
+            names = new ArrayList<>(synthetic.locations.keySet());
+        }
+        List<Walkway> walkways = GraphFile.walkways(calculator.getGraph());
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong queries = new AtomicLong();
+        AtomicInteger updates = new AtomicInteger();
+        Map<String, AtomicInteger> failures = new TreeMap<>();
+        for (String algorithm : ALGORITHMS) {
+            failures.put(algorithm, new AtomicInteger());
+        }
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    String from = names.get(random.nextInt(names.size()));
+                    String to = names.get(random.nextInt(names.size()));
+                    String algorithm = ALGORITHMS[random.nextInt(ALGORITHMS.length)];
+                    try {
+                        for (Route route : route(calculator, algorithm, from, to)) {
+                            checkWalkable(route);
+                        }
+                    } catch (RuntimeException e) {
+                        if (failures.get(algorithm).getAndIncrement() == 0) {
+                            System.err.println(algorithm + " " + from + " -> " + to + ": " + e);
+                        }
+                    }
+                    queries.incrementAndGet();
+                }
+            }));
+        }
+
+        // Close and reopen walkways one at a time, in a fixed shuffled order
+        Collections.shuffle(walkways, new Random(42));
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        for (int i = 0; System.nanoTime() < end; i = (i + 1) % walkways.size()) {
+            Walkway walkway = walkways.get(i);
+            calculator.closeWalkway(walkway.from, walkway.to);
+            calculator.openWalkway(walkway.from, walkway.to);
+            updates.addAndGet(2);
+        }
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        int failed = 0;
+        for (Map.Entry<String, AtomicInteger> entry : failures.entrySet()) {
+            failed += entry.getValue().get();
+            if (entry.getValue().get() > 0) {
+                System.out.printf("  %-15s %d failed%n", entry.getKey(), entry.getValue().get());
+            }
+        }
+        System.out.printf("%d queries against %d walkway updates in %d s: %d failed%n",
+                queries.get(), updates.get(), seconds, failed);
+        if (failed > 0) System.exit(1);
+    }
+
+    private static List<Route> route(RouteCalculator calculator, String algorithm, String from, String to) {
+        switch (algorithm) {
+            case "dijkstra": return calculator.findRoutesDijkstra(from, to);
+            case "astar": return calculator.findRoutesAStar(from, to);
+            case "bidirectional": return calculator.findRoutesBidirectionalAStar(from, to);
+            case "alt": return calculator.findRoutesALT(from, to);
+            case "ch": return calculator.findRoutesContractionHierarchy(from, to);
+            case "vogel": return calculator.findRoutesVogel(from, to, CampusGraph.Metric.TIME);
+            case "northwest": return calculator.findRoutesNorthwestCorner(from, to);
+            case "floyd-warshall": return calculator.findRoutesFloydWarshall(from, to);
+            case "time-dependent": return calculator.findRoutesTimeDependent(from, to, 12 * 60);
+            case "landmark": return calculator.findRoutesThroughLandmark(from, to, "hall");
+            default: return calculator.findNearest(from, LocationType.DINING, 3);
+        }
+    }
+
+    // Every hop must be an edge of the route's graph, and the totals must add up along them
+    private static void checkWalkable(Route route) {
+        CompactRoute compact = route.compact;
+        double distance = 0;
+        for (int i = 1; i < compact.size(); i++) {
+            int e = compact.graph.findEdge(compact.node(i - 1), compact.node(i));
+            if (e < 0) {
+                throw new IllegalStateException("No edge " + compact.name(i - 1) + " -> " + compact.name(i));
+            }
+            distance += compact.graph.distance(e);
+        }
+        if (Math.abs(distance - route.totalDistance) > 1e-6 * Math.max(1, distance)) {
+            throw new IllegalStateException("Distance " + route.totalDistance + " but the hops add up to " + distance);
+        }
+    }
+}
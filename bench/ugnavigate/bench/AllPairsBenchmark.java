@@ -0,0 +1,43 @@
+package ugnavigate.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Floyd-Warshall: query lookups through the precomputed table, and the precompute itself.
+// The n x n table limits this to campuses of at most a few thousand nodes.
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AllPairsBenchmark {
+    private static final long SEED = 42L;
+
+    @Param({"complete-25", "complete-1000", "sparse-25", "sparse-1000"})
+    public String campus;
+
+    private RoutingWorkload workload;
+    private int pair;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = RoutingWorkload.create(campus, SEED);
+        workload.floydWarshall(0); // build the table outside the measurement
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+    public Object floydWarshall() {
+        pair = (pair + 1) % workload.pairCount();
+        return workload.floydWarshall(pair);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public Object precomputeAllPairs() {
+        return workload.precomputeAllPairs();
+    }
+}
@@ -0,0 +1,74 @@
+package ugnavigate.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// A* with the straight-line heuristic against A* with ALT reference-node bounds. Besides
+// latency, the auxiliary counters report the nodes each search settled: settledNodes
+// divided by queries is the average search space per query. The references parameter
+// sweeps the number of ALT reference nodes (the straight-line benchmarks ignore it).
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeuristicBenchmark {
+    private static final long SEED = 42L;
+
+    @Param({"complete-1000", "sparse-1000", "sparse-10000", "sparse-100000"})
+    public String campus;
+
+    @Param({"6"})
+    public int references;
+
+    private RoutingWorkload workload;
+    private int pair;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SearchSpace {
+        public long queries;
+        public long settledNodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            queries = 0;
+            settledNodes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = RoutingWorkload.create(campus, SEED);
+        workload.setReferenceCount(references);
+        workload.alt(0); // precompute the reference distances outside the measurement
+    }
+
+    private int nextPair() {
+        pair = (pair + 1) % workload.pairCount();
+        return pair;
+    }
+
+    private Object count(Object routes, SearchSpace space) {
+        space.queries++;
+        space.settledNodes += workload.nodesExpanded(routes);
+        return routes;
+    }
+
+    @Benchmark
+    public Object straightLine(SearchSpace space) {
+        return count(workload.aStar(nextPair()), space);
+    }
+
+    @Benchmark
+    public Object alt(SearchSpace space) {
+        return count(workload.alt(nextPair()), space);
+    }
+
+    @Benchmark
+    public Object bidirectionalStraightLine(SearchSpace space) {
+        return count(workload.bidirectionalAStar(nextPair()), space);
+    }
+}
@@ -0,0 +1,45 @@
+package ugnavigate.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Contraction hierarchy: point-to-point queries over the hierarchy, and the preprocessing.
+// Contraction degrades towards quadratic work per node on dense graphs, so the complete
+// campus only runs at 25 nodes; on the grid-like sparse campuses preprocessing takes
+// seconds at 10k nodes.
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HierarchyBenchmark {
+    private static final long SEED = 42L;
+
+    @Param({"complete-25", "sparse-25", "sparse-1000", "sparse-10000"})
+    public String campus;
+
+    private RoutingWorkload workload;
+    private int pair;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = RoutingWorkload.create(campus, SEED);
+        workload.contractionHierarchy(0); // build the hierarchy outside the measurement
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+    public Object contractionHierarchy() {
+        pair = (pair + 1) % workload.pairCount();
+        return workload.contractionHierarchy(pair);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public Object precomputeContractionHierarchy() {
+        return workload.precomputeContractionHierarchy();
+    }
+}
@@ -0,0 +1,68 @@
+package ugnavigate.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Point-to-point query cost of every RouteCalculator algorithm on synthetic campuses.
+// Complete graphs stop at 1k nodes: at 10k they already hold 10^8 edges.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoutingBenchmark {
+    private static final long SEED = 42L;
+
+    @Param({"complete-25", "complete-1000", "sparse-25", "sparse-1000", "sparse-10000", "sparse-100000"})
+    public String campus;
+
+    private RoutingWorkload workload;
+    private int pair;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = RoutingWorkload.create(campus, SEED);
+    }
+
+    private int nextPair() {
+        pair = (pair + 1) % workload.pairCount();
+        return pair;
+    }
+
+    @Benchmark
+    public Object dijkstra() {
+        return workload.dijkstra(nextPair());
+    }
+
+    @Benchmark
+    public Object aStar() {
+        return workload.aStar(nextPair());
+    }
+
+    @Benchmark
+    public Object bidirectionalAStar() {
+        return workload.bidirectionalAStar(nextPair());
+    }
+
+    @Benchmark
+    public Object vogel() {
+        return workload.vogel(nextPair());
+    }
+
+    @Benchmark
+    public Object northwestCorner() {
+        return workload.northwestCorner(nextPair());
+    }
+
+    @Benchmark
+    public Object throughLandmark() {
+        return workload.throughLandmark(nextPair());
+    }
+
+    @Benchmark
+    public Object greedy() {
+        return workload.greedy(nextPair());
+    }
+}
@@ -0,0 +1,54 @@
+package ugnavigate.bench;
+
+// Routing operations exercised by the benchmarks. The implementation lives in the
+// default package next to RouteCalculator, which named packages cannot import, so it
+// is instantiated by name.
+public interface RoutingWorkload {
+    String IMPLEMENTATION = "CampusBenchmarkWorkload";
+
+    // campusSpec is "<complete|sparse>-<nodes>", e.g. "sparse-10000"
+    void setUp(String campusSpec, long seed);
+
+    int pairCount();
+
+    Object dijkstra(int pair);
+
+    Object floydWarshall(int pair);
+
+    Object precomputeAllPairs();
+
+    Object aStar(int pair);
+
+    Object bidirectionalAStar(int pair);
+
+    Object alt(int pair);
+
+    // Reference nodes behind alt's lower bounds; takes effect on the next alt query
+    void setReferenceCount(int count);
+
+    // Nodes settled by the search behind a result of aStar, alt or bidirectionalAStar
+    int nodesExpanded(Object routes);
+
+    Object contractionHierarchy(int pair);
+
+    Object precomputeContractionHierarchy();
+
+    Object vogel(int pair);
+
+    Object northwestCorner(int pair);
+
+    Object throughLandmark(int pair);
+
+    Object greedy(int pair);
+
+    static RoutingWorkload create(String campusSpec, long seed) {
+        try {
+            RoutingWorkload workload = (RoutingWorkload) Class.forName(IMPLEMENTATION)
+                    .getDeclaredConstructor().newInstance();
+            workload.setUp(campusSpec, seed);
+            return workload;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load benchmark workload " + IMPLEMENTATION, e);
+        }
+    }
+}
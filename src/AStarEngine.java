@@ -0,0 +1,200 @@
+// AStarEngine.java
+import java.util.Arrays;
+
+// A* over a CampusGraph with an indexed heap as the open set and a boolean closed set.
+// Heuristics must be consistent (never overestimate, and satisfy the triangle inequality
+// along every edge); CampusGraph.lowerBound is, so the first time the target is settled
+// its distance is final. The engine is stateless and can be shared between threads.
+final class AStarEngine {
+    // Estimated remaining cost from a node to a fixed endpoint of the search
+    interface Heuristic {
+        double estimate(int node);
+    }
+
+    private final CampusGraph graph;
+
+    public AStarEngine(CampusGraph graph) {
+        this.graph = graph;
+    }
+
+    // Straight-line heuristic towards target, scaled into the metric's units
+    public Heuristic straightLine(int target, CampusGraph.Metric metric) {
+        return node -> graph.lowerBound(node, target, metric);
+    }
+
+    public SearchResult search(int source, int target, CampusGraph.Metric metric) {
+        return search(source, target, metric, straightLine(target, metric));
+    }
+
+    public SearchResult search(int source, int target, CampusGraph.Metric metric, Heuristic toTarget) {
+        SearchStats.Probe probe = SearchStats.begin(SearchStats.Algorithm.ASTAR);
+        int n = graph.size();
+        boolean byTime = metric == CampusGraph.Metric.TIME;
+
+        double[] gScore = new double[n];
+        int[] previous = new int[n];
+        boolean[] closed = new boolean[n];
+        Arrays.fill(gScore, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, -1);
+
+        IndexedMinHeap openSet = new IndexedMinHeap(n);
+        gScore[source] = 0.0;
+        openSet.insert(source, toTarget.estimate(source));
+
+        int expanded = 0;
+        long relaxed = 0;
+        while (!openSet.isEmpty()) {
+            int current = openSet.pollMin();
+            closed[current] = true;
+            expanded++;
+
+            if (current == target) {
+                if (probe != null) probe.end(expanded, relaxed, openSet);
+                return new SearchResult(pathTo(previous, target), gScore[target], expanded);
+            }
+            if ((expanded & 0xFF) == 0) QueryCancellation.checkpoint();
+            relaxed += graph.edgeEnd(current) - graph.edgeStart(current);
+
+            for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+                int neighbor = graph.target(e);
+                if (closed[neighbor]) continue;
+
+                double tentativeGScore = gScore[current] + (byTime ? graph.time(e) : graph.distance(e));
+                if (tentativeGScore < gScore[neighbor]) {
+                    previous[neighbor] = current;
+                    gScore[neighbor] = tentativeGScore;
+                    openSet.insertOrDecrease(neighbor, tentativeGScore + toTarget.estimate(neighbor));
+                }
+            }
+        }
+
+        if (probe != null) probe.end(expanded, relaxed, openSet);
+        return new SearchResult(null, Double.POSITIVE_INFINITY, expanded);
+    }
+
+    public SearchResult searchBidirectional(int source, int target, CampusGraph.Metric metric) {
+        AStarEngine.Heuristic toTarget = straightLine(target, metric);
+        AStarEngine.Heuristic fromSource = node -> graph.lowerBound(source, node, metric);
+        return searchBidirectional(source, target, metric, toTarget, fromSource);
+    }
+
+    // Bidirectional A*: a forward search from source and a backward search (over the
+    // reversed graph) from target. Both use the average potential
+    //   pf(v) = (toTarget(v) - fromSource(v)) / 2,  pr(v) = -pf(v)
+    // which keeps reduced edge costs non-negative in both directions, so the searches can
+    // stop as soon as the two smallest keys sum to at least the best meeting cost seen.
+    public SearchResult searchBidirectional(int source, int target, CampusGraph.Metric metric,
+                                            Heuristic toTarget, Heuristic fromSource) {
+        if (source == target) {
+            return new SearchResult(new int[]{source}, 0.0, 1);
+        }
+
+        SearchStats.Probe probe = SearchStats.begin(SearchStats.Algorithm.BIDIRECTIONAL_ASTAR);
+        int n = graph.size();
+        boolean byTime = metric == CampusGraph.Metric.TIME;
+        CampusGraph reverse = graph.reversed();
+
+        double[] gForward = new double[n];
+        double[] gBackward = new double[n];
+        int[] previous = new int[n]; // forward predecessors, towards source
+        int[] next = new int[n];     // backward predecessors, towards target
+        boolean[] closedForward = new boolean[n];
+        boolean[] closedBackward = new boolean[n];
+        Arrays.fill(gForward, Double.POSITIVE_INFINITY);
+        Arrays.fill(gBackward, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, -1);
+        Arrays.fill(next, -1);
+
+        IndexedMinHeap forward = new IndexedMinHeap(n);
+        IndexedMinHeap backward = new IndexedMinHeap(n);
+        gForward[source] = 0.0;
+        gBackward[target] = 0.0;
+        forward.insert(source, potential(source, toTarget, fromSource));
+        backward.insert(target, -potential(target, toTarget, fromSource));
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        int expanded = 0;
+        long relaxed = 0;
+
+        while (!forward.isEmpty() && !backward.isEmpty()) {
+            if (forward.minKey() + backward.minKey() >= best) break;
+            if ((++expanded & 0xFF) == 0) QueryCancellation.checkpoint();
+
+            if (forward.minKey() <= backward.minKey()) {
+                int current = forward.pollMin();
+                closedForward[current] = true;
+                relaxed += graph.edgeEnd(current) - graph.edgeStart(current);
+                for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+                    int neighbor = graph.target(e);
+                    if (closedForward[neighbor]) continue;
+
+                    double g = gForward[current] + (byTime ? graph.time(e) : graph.distance(e));
+                    if (g < gForward[neighbor]) {
+                        gForward[neighbor] = g;
+                        previous[neighbor] = current;
+                        forward.insertOrDecrease(neighbor, g + potential(neighbor, toTarget, fromSource));
+                    }
+                    if (g + gBackward[neighbor] < best) {
+                        best = g + gBackward[neighbor];
+                        meeting = neighbor;
+                    }
+                }
+            } else {
+                int current = backward.pollMin();
+                closedBackward[current] = true;
+                relaxed += reverse.edgeEnd(current) - reverse.edgeStart(current);
+                for (int e = reverse.edgeStart(current); e < reverse.edgeEnd(current); e++) {
+                    int neighbor = reverse.target(e);
+                    if (closedBackward[neighbor]) continue;
+
+                    double g = gBackward[current] + (byTime ? reverse.time(e) : reverse.distance(e));
+                    if (g < gBackward[neighbor]) {
+                        gBackward[neighbor] = g;
+                        next[neighbor] = current;
+                        backward.insertOrDecrease(neighbor, g - potential(neighbor, toTarget, fromSource));
+                    }
+                    if (g + gForward[neighbor] < best) {
+                        best = g + gForward[neighbor];
+                        meeting = neighbor;
+                    }
+                }
+            }
+        }
+
+        if (probe != null) probe.end(expanded, relaxed, forward, backward);
+        if (meeting == -1) {
+            return new SearchResult(null, Double.POSITIVE_INFINITY, expanded);
+        }
+
+        // Stitch source -> meeting (forward tree) and meeting -> target (backward tree)
+        int[] head = pathTo(previous, meeting);
+        int tailLength = 0;
+        for (int node = next[meeting]; node != -1; node = next[node]) {
+            tailLength++;
+        }
+        int[] path = Arrays.copyOf(head, head.length + tailLength);
+        int i = head.length;
+        for (int node = next[meeting]; node != -1; node = next[node]) {
+            path[i++] = node;
+        }
+        return new SearchResult(path, best, expanded);
+    }
+
+    private static double potential(int node, Heuristic toTarget, Heuristic fromSource) {
+        return (toTarget.estimate(node) - fromSource.estimate(node)) / 2;
+    }
+
+    private static int[] pathTo(int[] previous, int target) {
+        int length = 0;
+        for (int node = target; node != -1; node = previous[node]) {
+            length++;
+        }
+
+        int[] path = new int[length];
+        for (int node = target; node != -1; node = previous[node]) {
+            path[--length] = node;
+        }
+        return path;
+    }
+}
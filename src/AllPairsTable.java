@@ -0,0 +1,131 @@
+// AllPairsTable.java
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// All-pairs shortest path table computed once with Floyd-Warshall.
+// Queries afterwards are a walk through next, i.e. O(path length).
+// Both tables are flat row-major n x n buffers, so a table stored in a compiled graph
+// file (see GraphFile) is used in place from the mapping.
+final class AllPairsTable {
+    // Rows relaxed per parallel task within one k iteration
+    private static final int ROW_BLOCK = 64;
+
+    private final int n;
+    private final DoubleBuffer dist; // [from * n + to]
+    private final IntBuffer next;    // first hop after from towards to, or -1
+
+    AllPairsTable(int n, DoubleBuffer dist, IntBuffer next) {
+        this.n = n;
+        this.dist = dist;
+        this.next = next;
+    }
+
+    AllPairsTable(int n, double[] dist, int[] next) {
+        this(n, DoubleBuffer.wrap(dist), IntBuffer.wrap(next));
+    }
+
+    public static AllPairsTable compute(CampusGraph graph, CampusGraph.Metric metric) {
+        SearchStats.Probe probe = SearchStats.begin(SearchStats.Algorithm.FLOYD_WARSHALL);
+        int n = graph.size();
+        double[] dist = new double[n * n];
+        int[] next = new int[n * n];
+
+        // Initialize from the adjacency lists
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(next, -1);
+        for (int i = 0; i < n; i++) {
+            dist[i * n + i] = 0;
+            next[i * n + i] = i;
+            for (int e = graph.edgeStart(i); e < graph.edgeEnd(i); e++) {
+                int j = graph.target(e);
+                double w = graph.weight(e, metric);
+                if (w < dist[i * n + j]) {
+                    dist[i * n + j] = w;
+                    next[i * n + j] = j;
+                }
+            }
+        }
+
+        // Floyd-Warshall, tiled over the row dimension. With non-negative weights row k
+        // and column k do not change during iteration k, so row blocks are independent.
+        int blocks = (n + ROW_BLOCK - 1) / ROW_BLOCK;
+        for (int k = 0; k < n; k++) {
+            QueryCancellation.checkpoint();
+            final int pivot = k;
+            if (blocks > 1) {
+                IntStream.range(0, blocks).parallel().forEach(b ->
+                        relaxRows(dist, next, n, pivot, b * ROW_BLOCK, Math.min(n, (b + 1) * ROW_BLOCK)));
+            } else {
+                relaxRows(dist, next, n, pivot, 0, n);
+            }
+        }
+
+        // Every pivot is one settled node and checks all n * n pairs
+        if (probe != null) probe.end(n, (long) n * n * n);
+        return new AllPairsTable(n, dist, next);
+    }
+
+    private static void relaxRows(double[] dist, int[] next, int n, int k, int fromRow, int toRow) {
+        int rowK = k * n;
+        for (int i = fromRow; i < toRow; i++) {
+            int rowI = i * n;
+            double distIK = dist[rowI + k];
+            if (distIK == Double.POSITIVE_INFINITY) continue;
+
+            int viaK = next[rowI + k];
+            for (int j = 0; j < n; j++) {
+                double candidate = distIK + dist[rowK + j];
+                if (candidate < dist[rowI + j]) {
+                    dist[rowI + j] = candidate;
+                    next[rowI + j] = viaK;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public double distance(int from, int to) {
+        return dist.get(from * n + to);
+    }
+
+    // Heap copies of the tables, for copy-on-write repairs (see IncrementalPaths)
+    double[] copyDistances() {
+        double[] copy = new double[n * n];
+        dist.get(0, copy);
+        return copy;
+    }
+
+    int[] copyNextHops() {
+        int[] copy = new int[n * n];
+        next.get(0, copy);
+        return copy;
+    }
+
+    // First node after from on the shortest path to to, or -1 if to is unreachable
+    public int nextHop(int from, int to) {
+        return next.get(from * n + to);
+    }
+
+    // Node ids from -> to, or null if to is unreachable
+    public int[] path(int from, int to) {
+        if (next.get(from * n + to) == -1) return null;
+
+        int length = 1;
+        for (int current = from; current != to; current = next.get(current * n + to)) {
+            length++;
+        }
+
+        int[] path = new int[length];
+        int current = from;
+        for (int i = 0; i < length; i++) {
+            path[i] = current;
+            current = next.get(current * n + to);
+        }
+        return path;
+    }
+}
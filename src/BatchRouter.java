@@ -0,0 +1,280 @@
+// BatchRouter.java
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Headless bulk routing for origin-destination workloads. Pairs are grouped by origin so
+// one single-source search answers every destination of that origin; origins are fanned
+// out over a fork/join pool, and each origin's results are streamed to the output as soon
+// as they are ready. A batch searches the calculator's graph as it was when the batch
+// started, with its own Dijkstra engine: its trees are used once each, so they would only
+// churn the calculator's shared tree cache and the interactive trees it holds.
+class BatchRouter {
+    enum Format { CSV, JSON_LINES }
+
+    // Output is handed to the writer in chunks of at most this many characters
+    private static final int CHUNK_CHARS = 64 * 1024;
+
+    private final RouteCalculator calculator;
+    private final CampusGraph.Metric metric;
+    private final int parallelism;
+
+    public BatchRouter(RouteCalculator calculator, CampusGraph.Metric metric, int parallelism) {
+        this.calculator = calculator;
+        this.metric = metric;
+        this.parallelism = parallelism;
+    }
+
+    // Origin-destination pairs as node ids, in input order
+    static final class Workload {
+        final int[] origins;
+        final int[] destinations;
+
+        Workload(int[] origins, int[] destinations) {
+            this.origins = origins;
+            this.destinations = destinations;
+        }
+
+        int size() {
+            return origins.length;
+        }
+    }
+
+    // Reads "from,to" lines; blank lines, '#' comments and a "from,to" header are skipped
+    public Workload readPairs(Path file) throws IOException {
+        CampusGraph graph = calculator.getGraph();
+        int[] origins = new int[1024];
+        int[] destinations = new int[1024];
+        int count = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.equalsIgnoreCase("from,to")) continue;
+
+                int comma = line.indexOf(',');
+                if (comma < 0) {
+                    throw new IOException("Line " + lineNumber + ": expected 'from,to' but got: " + line);
+                }
+                int from = graph.id(unquote(line.substring(0, comma)));
+                int to = graph.id(unquote(line.substring(comma + 1)));
+                if (from < 0 || to < 0) {
+                    throw new IOException("Line " + lineNumber + ": unknown location in: " + line);
+                }
+
+                if (count == origins.length) {
+                    origins = Arrays.copyOf(origins, count * 2);
+                    destinations = Arrays.copyOf(destinations, count * 2);
+                }
+                origins[count] = from;
+                destinations[count] = to;
+                count++;
+            }
+        }
+
+        return new Workload(Arrays.copyOf(origins, count), Arrays.copyOf(destinations, count));
+    }
+
+    // Routes every pair and writes one line per pair; returns the number of pairs routed.
+    // Output is grouped by origin, and each line carries the pair's input index.
+    public long run(Workload workload, Writer output, Format format) throws IOException {
+        int[] order = groupByOrigin(workload);
+        AtomicLong routed = new AtomicLong();
+        Object lock = new Object();
+        IOException[] failure = new IOException[1];
+
+        if (format == Format.CSV) {
+            output.write("index,from,to,reachable,distance_m,time_min,hops,path\n");
+        }
+
+        // The engine is stateless, so every worker searches through the same one
+        CampusGraph graph = calculator.getGraph();
+        DijkstraEngine dijkstra = new DijkstraEngine(graph);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        List<Future<?>> groups = new ArrayList<>();
+        Throwable error = null;
+        try {
+            int start = 0;
+            while (start < order.length) {
+                int end = start;
+                int origin = workload.origins[order[start]];
+                while (end < order.length && workload.origins[order[end]] == origin) end++;
+
+                final int groupStart = start;
+                final int groupEnd = end;
+                groups.add(pool.submit(() -> {
+                    routeOrigin(graph, dijkstra, workload, order, groupStart, groupEnd, format, chunk -> {
+                        synchronized (lock) {
+                            try {
+                                output.write(chunk.toString());
+                            } catch (IOException e) {
+                                failure[0] = e;
+                            }
+                        }
+                    });
+                    routed.addAndGet(groupEnd - groupStart);
+                }));
+                start = end;
+            }
+
+            // Every group runs to the end; the first one that threw fails the batch
+            for (Future<?> group : groups) {
+                try {
+                    group.get();
+                } catch (ExecutionException e) {
+                    if (error == null) error = e.getCause();
+                }
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Batch routing interrupted");
+        } finally {
+            pool.shutdown();
+            try {
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                pool.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (failure[0] != null) throw failure[0];
+        if (error instanceof RuntimeException) throw (RuntimeException) error;
+        if (error instanceof Error) throw (Error) error;
+        output.flush();
+        return routed.get();
+    }
+
+    // One shortest-path tree for the origin, then a path extraction per destination
+    private void routeOrigin(CampusGraph graph, DijkstraEngine dijkstra, Workload workload, int[] order,
+                             int start, int end, Format format, Consumer<CharSequence> sink) {
+        int origin = workload.origins[order[start]];
+        ShortestPathTree tree = dijkstra.search(origin, metric);
+
+        // Each pair's path is written straight from this thread's route builder, so
+        // nothing is allocated per destination beyond the output text
+        CompactRoute.Builder path = CompactRoute.builder(graph);
+        StringBuilder sb = new StringBuilder();
+        for (int i = start; i < end; i++) {
+            int index = order[i];
+            int destination = workload.destinations[index];
+            boolean reachable = path.fromTree(tree, destination);
+
+            if (format == Format.CSV) {
+                appendCsv(sb, graph, index, origin, destination, reachable ? path : null);
+            } else {
+                appendJson(sb, graph, index, origin, destination, reachable ? path : null);
+            }
+
+            if (sb.length() >= CHUNK_CHARS) {
+                sink.accept(sb);
+                sb.setLength(0);
+            }
+        }
+        if (sb.length() > 0) {
+            sink.accept(sb);
+        }
+    }
+
+    // Pair indices sorted by origin (stable, so destinations keep their input order)
+    private static int[] groupByOrigin(Workload workload) {
+        int n = workload.size();
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((long) workload.origins[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    private static void appendCsv(StringBuilder sb, CampusGraph graph, int index, int from, int to,
+                                  CompactRoute.Builder path) {
+        sb.append(index).append(',')
+                .append(csv(graph.name(from))).append(',')
+                .append(csv(graph.name(to))).append(',');
+        if (path == null) {
+            sb.append("false,,,,\n");
+            return;
+        }
+        sb.append("true,")
+                .append(String.format(Locale.ROOT, "%.2f,%.2f,", path.distance(), path.time()))
+                .append(path.size() - 1).append(',');
+
+        StringBuilder names = new StringBuilder();
+        for (int j = 0; j < path.size(); j++) {
+            if (j > 0) names.append(" > ");
+            names.append(graph.name(path.node(j)));
+        }
+        sb.append(csv(names.toString())).append('\n');
+    }
+
+    private static void appendJson(StringBuilder sb, CampusGraph graph, int index, int from, int to,
+                                   CompactRoute.Builder path) {
+        sb.append("{\"index\":").append(index)
+                .append(",\"from\":").append(json(graph.name(from)))
+                .append(",\"to\":").append(json(graph.name(to)))
+                .append(",\"reachable\":").append(path != null);
+        if (path != null) {
+            sb.append(String.format(Locale.ROOT, ",\"distance\":%.2f,\"time\":%.2f", path.distance(), path.time()))
+                    .append(",\"path\":[");
+            for (int j = 0; j < path.size(); j++) {
+                if (j > 0) sb.append(',');
+                sb.append(json(graph.name(path.node(j))));
+            }
+            sb.append(']');
+        }
+        sb.append("}\n");
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    static String json(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String unquote(String value) {
+        value = value.trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).replace("\"\"", "\"");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,142 @@
+// CampusData.java
+import java.util.*;
+
+// The University of Ghana campus map: locations on the map grid and the walkways between
+// them. Shared by the Swing app and the headless batch router.
+final class CampusData {
+    private CampusData() {
+    }
+
+    public static Map<String, Location> createLocations() {
+        Map<String, Location> locations = new HashMap<>();
+
+        // Initialize UG campus locations with grid coordinates
+        locations.put("Senate House", new Location("Senate House", 400, 200, LocationType.ADMINISTRATIVE));
+        locations.put("Central Administration", new Location("Central Administration", 350, 150, LocationType.ADMINISTRATIVE));
+        locations.put("John Evans Atta Mills Library", new Location("John Evans Atta Mills Library", 450, 250, LocationType.ACADEMIC));
+        locations.put("Balme Library", new Location("Balme Library", 380, 280, LocationType.ACADEMIC));
+        locations.put("Great Hall", new Location("Great Hall", 500, 180, LocationType.EVENT));
+
+        // Halls of Residence
+        locations.put("Legon Hall", new Location("Legon Hall", 200, 100, LocationType.RESIDENTIAL));
+        locations.put("Akuafo Hall", new Location("Akuafo Hall", 150, 150, LocationType.RESIDENTIAL));
+        locations.put("Commonwealth Hall", new Location("Commonwealth Hall", 250, 200, LocationType.RESIDENTIAL));
+        locations.put("Volta Hall", new Location("Volta Hall", 300, 250, LocationType.RESIDENTIAL));
+        locations.put("Achimota Hall", new Location("Achimota Hall", 180, 300, LocationType.RESIDENTIAL));
+
+        // Academic Buildings
+        locations.put("School of Engineering", new Location("School of Engineering", 600, 200, LocationType.ACADEMIC));
+        locations.put("School of Law", new Location("School of Law", 550, 300, LocationType.ACADEMIC));
+        locations.put("Department of Computer Science", new Location("Department of Computer Science", 650, 250, LocationType.ACADEMIC));
+        locations.put("School of Business", new Location("School of Business", 520, 350, LocationType.ACADEMIC));
+        locations.put("School of Medicine", new Location("School of Medicine", 700, 300, LocationType.ACADEMIC));
+
+        // Services and Facilities
+        locations.put("University Hospital", new Location("University Hospital", 750, 350, LocationType.MEDICAL));
+        locations.put("Central Cafeteria", new Location("Central Cafeteria", 400, 320, LocationType.DINING));
+        locations.put("Night Market", new Location("Night Market", 320, 380, LocationType.DINING));
+        locations.put("Sports Complex", new Location("Sports Complex", 600, 400, LocationType.RECREATION));
+        locations.put("University Field", new Location("University Field", 500, 450, LocationType.RECREATION));
+
+        // Banks and Services
+        locations.put("UG Branch GCB Bank", new Location("UG Branch GCB Bank", 430, 180, LocationType.BANKING));
+        locations.put("University Post Office", new Location("University Post Office", 380, 170, LocationType.SERVICE));
+        locations.put("Main Gate", new Location("Main Gate", 100, 200, LocationType.ENTRANCE));
+        locations.put("East Gate", new Location("East Gate", 800, 250, LocationType.ENTRANCE));
+
+        // Additional Academic Units
+        locations.put("Institute of African Studies", new Location("Institute of African Studies", 480, 280, LocationType.ACADEMIC));
+        locations.put("School of Performing Arts", new Location("School of Performing Arts", 350, 400, LocationType.ACADEMIC));
+        locations.put("Noguchi Memorial Institute", new Location("Noguchi Memorial Institute", 720, 200, LocationType.RESEARCH));
+        return locations;
+    }
+
+    public static List<Walkway> createWalkways(Map<String, Location> locations) {
+        List<Walkway> walkways = new ArrayList<>();
+
+        // Real campus walkway segments; every segment can be walked in both directions
+        String[][] segments = {
+                // Main Gate and the western halls
+                {"Main Gate", "Central Administration"},
+                {"Main Gate", "Akuafo Hall"},
+                {"Main Gate", "Commonwealth Hall"},
+                {"Akuafo Hall", "Legon Hall"},
+                {"Akuafo Hall", "Commonwealth Hall"},
+                {"Akuafo Hall", "Achimota Hall"},
+                {"Legon Hall", "Central Administration"},
+                {"Commonwealth Hall", "Central Administration"},
+                {"Commonwealth Hall", "Volta Hall"},
+                {"Commonwealth Hall", "Night Market"},
+                {"Achimota Hall", "Volta Hall"},
+                {"Achimota Hall", "Night Market"},
+                {"Volta Hall", "Balme Library"},
+                {"Volta Hall", "Night Market"},
+
+                // Administrative core
+                {"Central Administration", "Senate House"},
+                {"Central Administration", "University Post Office"},
+                {"University Post Office", "Senate House"},
+                {"University Post Office", "UG Branch GCB Bank"},
+                {"Senate House", "UG Branch GCB Bank"},
+                {"Senate House", "John Evans Atta Mills Library"},
+                {"Senate House", "Balme Library"},
+                {"UG Branch GCB Bank", "Great Hall"},
+
+                // Central academic area
+                {"John Evans Atta Mills Library", "Central Cafeteria"},
+                {"John Evans Atta Mills Library", "Institute of African Studies"},
+                {"John Evans Atta Mills Library", "Great Hall"},
+                {"Balme Library", "Central Cafeteria"},
+                {"Central Cafeteria", "Night Market"},
+                {"Central Cafeteria", "Institute of African Studies"},
+                {"Central Cafeteria", "School of Business"},
+                {"Night Market", "School of Performing Arts"},
+                {"School of Performing Arts", "University Field"},
+                {"Institute of African Studies", "School of Law"},
+                {"Institute of African Studies", "School of Business"},
+
+                // Eastern academic area and the East Gate
+                {"Great Hall", "School of Engineering"},
+                {"School of Engineering", "Department of Computer Science"},
+                {"School of Engineering", "School of Law"},
+                {"School of Engineering", "Noguchi Memorial Institute"},
+                {"Department of Computer Science", "Noguchi Memorial Institute"},
+                {"Department of Computer Science", "School of Medicine"},
+                {"Noguchi Memorial Institute", "East Gate"},
+                {"School of Medicine", "East Gate"},
+                {"University Hospital", "School of Medicine"},
+                {"University Hospital", "East Gate"},
+                {"University Hospital", "Sports Complex"},
+
+                // Southern sports area
+                {"School of Law", "School of Business"},
+                {"School of Law", "Sports Complex"},
+                {"School of Business", "Sports Complex"},
+                {"School of Business", "University Field"},
+                {"Sports Complex", "University Field"},
+        };
+
+        for (String[] segment : segments) {
+            Location l1 = locations.get(segment[0]);
+            Location l2 = locations.get(segment[1]);
+
+            // Straight-line segment length converted to campus scale (in meters)
+            double length = Math.sqrt(Math.pow(l2.x - l1.x, 2) + Math.pow(l2.y - l1.y, 2)) * 2.5;
+
+            // Walking time at 5 km/h average with traffic factors for the segment
+            double baseTime = length / (5000.0 / 60.0); // minutes
+            double time = baseTime * getTrafficFactor(l1.type, l2.type);
+
+            walkways.add(new Walkway(segment[0], segment[1], length, time));
+        }
+        return walkways;
+    }
+
+    private static double getTrafficFactor(LocationType type1, LocationType type2) {
+        // Simulate traffic conditions based on location types
+        if (type1 == LocationType.DINING || type2 == LocationType.DINING) return 1.3;
+        if (type1 == LocationType.ACADEMIC || type2 == LocationType.ACADEMIC) return 1.1;
+        if (type1 == LocationType.ADMINISTRATIVE || type2 == LocationType.ADMINISTRATIVE) return 1.2;
+        return 1.0; // Normal traffic
+    }
+}
@@ -0,0 +1,484 @@
+// CampusGraph.java
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.*;
+
+// Immutable routing graph: dense integer node ids, a name <-> id dictionary and
+// CSR (compressed sparse row) adjacency with primitive edge weights.
+// The outgoing edges of node u are the edge ids in [edgeStart(u), edgeEnd(u)).
+// Node and edge data live in primitive buffers: heap arrays for graphs built in memory,
+// or views straight into a memory-mapped graph file (see GraphFile), so a compiled
+// campus is queried without being copied onto the heap. The accessors read a heap
+// graph's arrays directly and only go through the buffers for a mapped one, so searches
+// on heap graphs keep plain array loads in their inner loops.
+final class CampusGraph {
+    // Which edge weight a search minimises
+    enum Metric { DISTANCE, TIME }
+
+    private static final LocationType[] TYPES = LocationType.values();
+
+    // Location names by node id, and the reverse lookup
+    interface NameTable {
+        String name(int node);
+
+        // Node id for a name, or -1 if the name is unknown
+        int id(String name);
+    }
+
+    private final NameTable names;
+    private final int n;
+    private final IntBuffer xs;
+    private final IntBuffer ys;
+    private final ByteBuffer types;    // LocationType ordinals
+
+    private final IntBuffer edgeOffsets;      // length n + 1
+    private final IntBuffer edgeTargets;      // length m
+    private final DoubleBuffer edgeDistances; // metres
+    private final DoubleBuffer edgeTimes;     // minutes
+
+    // The arrays behind the buffers above, or null when a buffer is a mapped view
+    private final int[] xArray;
+    private final int[] yArray;
+    private final byte[] typeArray;
+    private final int[] offsetArray;
+    private final int[] targetArray;
+    private final double[] distanceArray;
+    private final double[] timeArray;
+
+    // Largest c with c * straight-line length <= weight on every edge (see lowerBound)
+    private final double distancePerUnit;
+    private final double timePerUnit;
+
+    private CampusGraph reversed;
+
+    CampusGraph(NameTable names, IntBuffer xs, IntBuffer ys, ByteBuffer types,
+                IntBuffer edgeOffsets, IntBuffer edgeTargets,
+                DoubleBuffer edgeDistances, DoubleBuffer edgeTimes,
+                double distancePerUnit, double timePerUnit) {
+        this.names = names;
+        this.n = xs.capacity();
+        this.xs = xs;
+        this.ys = ys;
+        this.types = types;
+        this.edgeOffsets = edgeOffsets;
+        this.edgeTargets = edgeTargets;
+        this.edgeDistances = edgeDistances;
+        this.edgeTimes = edgeTimes;
+        this.distancePerUnit = distancePerUnit;
+        this.timePerUnit = timePerUnit;
+        this.xArray = array(xs);
+        this.yArray = array(ys);
+        this.typeArray = types.hasArray() && types.arrayOffset() == 0 ? types.array() : null;
+        this.offsetArray = array(edgeOffsets);
+        this.targetArray = array(edgeTargets);
+        this.distanceArray = array(edgeDistances);
+        this.timeArray = array(edgeTimes);
+    }
+
+    private static int[] array(IntBuffer buffer) {
+        return buffer.hasArray() && buffer.arrayOffset() == 0 ? buffer.array() : null;
+    }
+
+    private static double[] array(DoubleBuffer buffer) {
+        return buffer.hasArray() && buffer.arrayOffset() == 0 ? buffer.array() : null;
+    }
+
+    private static CampusGraph onHeap(NameTable names, IntBuffer xs, IntBuffer ys, ByteBuffer types,
+                                      int[] edgeOffsets, int[] edgeTargets,
+                                      double[] edgeDistances, double[] edgeTimes) {
+        double minDistancePerUnit = Double.POSITIVE_INFINITY;
+        double minTimePerUnit = Double.POSITIVE_INFINITY;
+        for (int u = 0; u + 1 < edgeOffsets.length; u++) {
+            for (int e = edgeOffsets[u]; e < edgeOffsets[u + 1]; e++) {
+                int v = edgeTargets[e];
+                double dx = xs.get(v) - xs.get(u);
+                double dy = ys.get(v) - ys.get(u);
+                double length = Math.sqrt(dx * dx + dy * dy);
+                if (length == 0) continue;
+                minDistancePerUnit = Math.min(minDistancePerUnit, edgeDistances[e] / length);
+                minTimePerUnit = Math.min(minTimePerUnit, edgeTimes[e] / length);
+            }
+        }
+        return new CampusGraph(names, xs, ys, types,
+                IntBuffer.wrap(edgeOffsets), IntBuffer.wrap(edgeTargets),
+                DoubleBuffer.wrap(edgeDistances), DoubleBuffer.wrap(edgeTimes),
+                minDistancePerUnit == Double.POSITIVE_INFINITY ? 0 : minDistancePerUnit,
+                minTimePerUnit == Double.POSITIVE_INFINITY ? 0 : minTimePerUnit);
+    }
+
+    // Builds the graph from the location table and the nested distance/time maps.
+    // Node ids follow the iteration order of locations; self loops are dropped.
+    public static CampusGraph fromMatrices(Map<String, Location> locations,
+                                           Map<String, Map<String, Double>> distanceMatrix,
+                                           Map<String, Map<String, Double>> timeMatrix) {
+        int n = locations.size();
+        String[] names = new String[n];
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        byte[] types = new byte[n];
+        HeapNames index = nodeTable(locations, names, xs, ys, types);
+
+        // First pass: count outgoing edges per node
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            Map<String, Double> row = distanceMatrix.get(names[u]);
+            int degree = 0;
+            if (row != null) {
+                for (String neighbor : row.keySet()) {
+                    int v = index.id(neighbor);
+                    if (v >= 0 && v != u) degree++;
+                }
+            }
+            offsets[u + 1] = offsets[u] + degree;
+        }
+
+        // Second pass: fill targets and weights
+        int m = offsets[n];
+        int[] targets = new int[m];
+        double[] distances = new double[m];
+        double[] times = new double[m];
+        for (int u = 0; u < n; u++) {
+            Map<String, Double> row = distanceMatrix.get(names[u]);
+            if (row == null) continue;
+            Map<String, Double> timeRow = timeMatrix.get(names[u]);
+
+            int e = offsets[u];
+            for (Map.Entry<String, Double> entry : row.entrySet()) {
+                int v = index.id(entry.getKey());
+                if (v < 0 || v == u) continue;
+                targets[e] = v;
+                distances[e] = entry.getValue();
+                times[e] = timeRow.get(entry.getKey());
+                e++;
+            }
+            sortRow(targets, distances, times, offsets[u], e);
+        }
+
+        return onHeap(index, IntBuffer.wrap(xs), IntBuffer.wrap(ys), ByteBuffer.wrap(types),
+                offsets, targets, distances, times);
+    }
+
+    // Builds a sparse graph from walkway segments; every walkway can be walked both ways.
+    // Node ids follow the iteration order of locations.
+    public static CampusGraph fromWalkways(Map<String, Location> locations, List<Walkway> walkways) {
+        int n = locations.size();
+        String[] names = new String[n];
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        byte[] types = new byte[n];
+        HeapNames index = nodeTable(locations, names, xs, ys, types);
+
+        int m = walkways.size() * 2;
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        double[] distances = new double[m];
+        double[] times = new double[m];
+        int e = 0;
+        for (Walkway walkway : walkways) {
+            int u = index.id(walkway.from);
+            int v = index.id(walkway.to);
+            if (u < 0 || v < 0) {
+                throw new IllegalArgumentException("Walkway references unknown location: "
+                        + walkway.from + " - " + walkway.to);
+            }
+            sources[e] = u;
+            targets[e] = v;
+            distances[e] = walkway.length;
+            times[e++] = walkway.walkingTime;
+            sources[e] = v;
+            targets[e] = u;
+            distances[e] = walkway.length;
+            times[e++] = walkway.walkingTime;
+        }
+
+        return fromEdgeList(index, IntBuffer.wrap(xs), IntBuffer.wrap(ys), ByteBuffer.wrap(types),
+                sources, targets, distances, times);
+    }
+
+    // Returns the transposed graph (every edge u -> v becomes v -> u), built on first use.
+    // It shares the node data but keeps its edges on the heap, even for a mapped graph.
+    public CampusGraph reversed() {
+        CampusGraph result = reversed;
+        if (result == null) {
+            int m = edgeCount();
+            int[] sources = new int[m];
+            int[] targets = new int[m];
+            double[] distances = new double[m];
+            double[] times = new double[m];
+            for (int u = 0; u < n; u++) {
+                for (int e = edgeStart(u); e < edgeEnd(u); e++) {
+                    sources[e] = u;
+                }
+            }
+            edgeTargets.get(0, targets);
+            edgeDistances.get(0, distances);
+            edgeTimes.get(0, times);
+            result = fromEdgeList(names, xs, ys, types, targets, sources, distances, times);
+            result.reversed = this;
+            reversed = result;
+        }
+        return result;
+    }
+
+    // Copy-on-write edge update: a graph equal to this one except that from -> to has the
+    // given weights, added if it did not exist. Node data is shared, edge arrays are copied.
+    public CampusGraph withEdge(int from, int to, double distance, double time) {
+        return withRow(from, to, distance, time, false);
+    }
+
+    // A graph equal to this one without the edge from -> to, or this graph if there is none
+    public CampusGraph withoutEdge(int from, int to) {
+        return findEdge(from, to) < 0 ? this : withRow(from, to, 0, 0, true);
+    }
+
+    private CampusGraph withRow(int from, int to, double distance, double time, boolean remove) {
+        int m = edgeCount();
+        int existing = findEdge(from, to);
+        int size = remove ? m - 1 : existing >= 0 ? m : m + 1;
+
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[size];
+        double[] distances = new double[size];
+        double[] times = new double[size];
+        int write = 0;
+        for (int u = 0; u < n; u++) {
+            offsets[u] = write;
+            boolean pending = u == from && existing < 0 && !remove;
+            for (int e = edgeStart(u); e < edgeEnd(u); e++) {
+                int v = target(e);
+                if (pending && v > to) {
+                    // Keep the row sorted by target for findEdge
+                    targets[write] = to;
+                    distances[write] = distance;
+                    times[write++] = time;
+                    pending = false;
+                }
+                if (e == existing) {
+                    if (remove) continue;
+                    targets[write] = v;
+                    distances[write] = distance;
+                    times[write++] = time;
+                    continue;
+                }
+                targets[write] = v;
+                distances[write] = distance(e);
+                times[write++] = time(e);
+            }
+            if (pending) {
+                targets[write] = to;
+                distances[write] = distance;
+                times[write++] = time;
+            }
+        }
+        offsets[n] = write;
+        return onHeap(names, xs, ys, types, offsets, targets, distances, times);
+    }
+
+    private static HeapNames nodeTable(Map<String, Location> locations, String[] names,
+                                       int[] xs, int[] ys, byte[] types) {
+        int id = 0;
+        for (Location location : locations.values()) {
+            names[id] = location.name;
+            xs[id] = location.x;
+            ys[id] = location.y;
+            types[id] = (byte) location.type.ordinal();
+            id++;
+        }
+        return new HeapNames(names);
+    }
+
+    // Names held as strings with a hash index, for graphs built in memory
+    private static final class HeapNames implements NameTable {
+        private final String[] names;
+        private final Map<String, Integer> ids;
+
+        HeapNames(String[] names) {
+            this.names = names;
+            this.ids = new HashMap<>(names.length * 2);
+            for (int i = 0; i < names.length; i++) {
+                ids.put(names[i], i);
+            }
+        }
+
+        @Override
+        public String name(int node) {
+            return names[node];
+        }
+
+        @Override
+        public int id(String name) {
+            Integer id = ids.get(name);
+            return id == null ? -1 : id;
+        }
+    }
+
+    // Counting-sorts an edge list into CSR form; duplicate edges keep the lighter distance
+    private static CampusGraph fromEdgeList(NameTable names, IntBuffer xs, IntBuffer ys, ByteBuffer types,
+                                            int[] sources, int[] targets,
+                                            double[] distances, double[] times) {
+        int n = xs.capacity();
+        int[] offsets = new int[n + 1];
+        for (int source : sources) {
+            offsets[source + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+
+        int m = sources.length;
+        int[] csrTargets = new int[m];
+        double[] csrDistances = new double[m];
+        double[] csrTimes = new double[m];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < m; i++) {
+            int e = fill[sources[i]]++;
+            csrTargets[e] = targets[i];
+            csrDistances[e] = distances[i];
+            csrTimes[e] = times[i];
+        }
+        for (int u = 0; u < n; u++) {
+            sortRow(csrTargets, csrDistances, csrTimes, offsets[u], offsets[u + 1]);
+        }
+
+        // Drop parallel edges so findEdge always sees a single u -> v edge
+        int[] compactOffsets = new int[n + 1];
+        int write = 0;
+        for (int u = 0; u < n; u++) {
+            int rowStart = write;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (write > rowStart && csrTargets[write - 1] == csrTargets[e]) {
+                    if (csrDistances[e] < csrDistances[write - 1]) {
+                        csrDistances[write - 1] = csrDistances[e];
+                        csrTimes[write - 1] = csrTimes[e];
+                    }
+                    continue;
+                }
+                csrTargets[write] = csrTargets[e];
+                csrDistances[write] = csrDistances[e];
+                csrTimes[write] = csrTimes[e];
+                write++;
+            }
+            compactOffsets[u + 1] = write;
+        }
+
+        return onHeap(names, xs, ys, types, compactOffsets,
+                Arrays.copyOf(csrTargets, write),
+                Arrays.copyOf(csrDistances, write),
+                Arrays.copyOf(csrTimes, write));
+    }
+
+    // Sorts the edges in [start, end) by target id so findEdge can binary search
+    private static void sortRow(int[] targets, double[] distances, double[] times, int start, int end) {
+        int length = end - start;
+        long[] keys = new long[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = ((long) targets[start + i] << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        double[] rowDistances = Arrays.copyOfRange(distances, start, end);
+        double[] rowTimes = Arrays.copyOfRange(times, start, end);
+        for (int i = 0; i < length; i++) {
+            int slot = (int) keys[i];
+            targets[start + i] = (int) (keys[i] >>> 32);
+            distances[start + i] = rowDistances[slot];
+            times[start + i] = rowTimes[slot];
+        }
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int edgeCount() {
+        return edgeTargets.capacity();
+    }
+
+    // Returns the node id for a location name, or -1 if the name is unknown
+    public int id(String name) {
+        return names.id(name);
+    }
+
+    public String name(int node) {
+        return names.name(node);
+    }
+
+    public int x(int node) {
+        return xArray != null ? xArray[node] : xs.get(node);
+    }
+
+    public int y(int node) {
+        return yArray != null ? yArray[node] : ys.get(node);
+    }
+
+    public LocationType type(int node) {
+        return TYPES[typeArray != null ? typeArray[node] : types.get(node)];
+    }
+
+    public int edgeStart(int node) {
+        return offsetArray != null ? offsetArray[node] : edgeOffsets.get(node);
+    }
+
+    public int edgeEnd(int node) {
+        return offsetArray != null ? offsetArray[node + 1] : edgeOffsets.get(node + 1);
+    }
+
+    public int target(int edge) {
+        return targetArray != null ? targetArray[edge] : edgeTargets.get(edge);
+    }
+
+    public double distance(int edge) {
+        return distanceArray != null ? distanceArray[edge] : edgeDistances.get(edge);
+    }
+
+    public double time(int edge) {
+        return timeArray != null ? timeArray[edge] : edgeTimes.get(edge);
+    }
+
+    public double weight(int edge, Metric metric) {
+        return metric == Metric.TIME ? time(edge) : distance(edge);
+    }
+
+    // Weight-per-grid-unit factor behind lowerBound, stored with compiled graphs
+    public double perUnit(Metric metric) {
+        return metric == Metric.TIME ? timePerUnit : distancePerUnit;
+    }
+
+    // Straight-line length between two nodes in map grid units
+    public double straightLine(int from, int to) {
+        double dx = x(to) - x(from);
+        double dy = y(to) - y(from);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    // Lower bound on the weight of any path between two nodes: the straight line scaled
+    // by the smallest weight-per-grid-unit ratio of any edge. This is in the metric's own
+    // units (metres or minutes) and is consistent, so it is safe as an A* heuristic.
+    public double lowerBound(int from, int to, Metric metric) {
+        return straightLine(from, to) * perUnit(metric);
+    }
+
+    // Returns the id of the edge from -> to, or -1 if the nodes are not adjacent
+    public int findEdge(int from, int to) {
+        int lo = edgeStart(from);
+        int hi = edgeEnd(from) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int target = target(mid);
+            if (target < to) lo = mid + 1;
+            else if (target > to) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    // Materialises a node id path into location names
+    public List<String> names(int[] path) {
+        List<String> result = new ArrayList<>(path.length);
+        for (int node : path) {
+            result.add(names.name(node));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,246 @@
+// CampusMapRenderer.java
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import java.util.List;
+
+// Draws the campus map through a MapViewport in three layers:
+//  - the base map image, from a TilePyramid when one is available
+//  - a cached vector layer (grid, walkways, location markers and labels) rendered into a
+//    transparent image that covers the panel plus a margin on every side; panning within
+//    the margin is a single image copy, and it is redrawn only when the zoom changes, the
+//    view leaves the margin, the panel outgrows it or the map changes
+//  - the route overlay, drawn on top on every paint
+// The vector layer is sized in 256-pixel steps at the device scale of the screen, so
+// dragging a window edge or repainting a route doesn't redraw the map. Markers, labels
+// and lines keep their screen size at every zoom. routeBounds gives the screen area a
+// set of routes covers, so route changes can repaint only the region that changed.
+final class CampusMapRenderer {
+    private static final int LAYER_STEP = 256;
+    private static final int LAYER_MARGIN = 256;
+    private static final int GRID_SPACING = 50; // map units
+    private static final int POINT_SIZE = 8;
+    private static final int LABEL_OFFSET = 15;
+    private static final int ARROW_LENGTH = 10;
+
+    private static final Color BACKGROUND = new Color(245, 255, 245);
+    private static final Color GRID = new Color(200, 200, 200, 90);
+    private static final Color WALKWAY = new Color(200, 200, 200);
+    private static final Font LABEL_FONT = new Font("Arial", Font.PLAIN, 10);
+    private static final BasicStroke WALKWAY_STROKE = new BasicStroke(1);
+    private static final BasicStroke ROUTE_STROKE = new BasicStroke(3);
+    private static final Color[] ROUTE_COLORS = {Color.BLUE, Color.RED, Color.GREEN};
+
+    private final Map<String, Location> locations;
+    private final List<Walkway> walkways;
+    private final MapViewport viewport;
+    private final TilePyramid tiles; // null draws the plain background
+
+    private BufferedImage vectorLayer;
+    private double layerScale;
+    private double layerZoom;
+    private int layerOffsetX;  // viewport offset the layer was drawn with, plus the margin
+    private int layerOffsetY;
+    private boolean layerValid;
+    private int layerBuilds;
+
+    public CampusMapRenderer(Map<String, Location> locations, List<Walkway> walkways,
+                             MapViewport viewport, TilePyramid tiles) {
+        this.locations = locations;
+        this.walkways = walkways;
+        this.viewport = viewport;
+        this.tiles = tiles;
+    }
+
+    // Forces the vector layer to be redrawn on the next paint, after locations or
+    // walkways changed
+    public void invalidate() {
+        layerValid = false;
+    }
+
+    public int layerBuilds() {
+        return layerBuilds;
+    }
+
+    public void paint(Graphics2D g2d, int width, int height, List<Route> routes) {
+        double scale = g2d.getTransform().getScaleX();
+
+        g2d.setColor(BACKGROUND);
+        g2d.fillRect(0, 0, width, height);
+        if (tiles != null) {
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            tiles.draw(g2d, viewport, width, height, scale);
+        }
+
+        ensureVectorLayer(g2d.getDeviceConfiguration(), width, height, scale);
+        // The layer holds device pixels; drawing it at its user-space size is a 1:1 copy
+        g2d.drawImage(vectorLayer,
+                viewport.offsetX() - layerOffsetX, viewport.offsetY() - layerOffsetY,
+                (int) Math.round(vectorLayer.getWidth() / scale),
+                (int) Math.round(vectorLayer.getHeight() / scale), null);
+
+        if (!routes.isEmpty()) {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            drawRoutes(g2d, routes);
+        }
+    }
+
+    // Screen area covered by the routes' lines and arrow heads, or an empty rectangle
+    public Rectangle routeBounds(List<Route> routes) {
+        Rectangle bounds = new Rectangle();
+        for (Route route : routes) {
+            for (String name : route.path) {
+                Location location = locations.get(name);
+                if (location == null) continue;
+                int x = viewport.screenX(location.x);
+                int y = viewport.screenY(location.y);
+                if (bounds.isEmpty()) bounds.setBounds(x, y, 1, 1);
+                else bounds.add(x, y);
+            }
+        }
+        if (!bounds.isEmpty()) {
+            int margin = ARROW_LENGTH + (int) Math.ceil(ROUTE_STROKE.getLineWidth());
+            bounds.grow(margin, margin);
+        }
+        return bounds;
+    }
+
+    private void ensureVectorLayer(GraphicsConfiguration config, int width, int height, double scale) {
+        if (layerValid && scale == layerScale && viewport.zoom() == layerZoom) {
+            // Where the layer's top-left corner lands on screen; it must still cover the panel
+            int left = viewport.offsetX() - layerOffsetX;
+            int top = viewport.offsetY() - layerOffsetY;
+            if (left <= 0 && top <= 0
+                    && left + vectorLayer.getWidth() / scale >= width
+                    && top + vectorLayer.getHeight() / scale >= height) {
+                return;
+            }
+        }
+
+        // Round up so small resizes reuse the same image
+        int layerWidth = roundUp((int) Math.ceil((width + 2 * LAYER_MARGIN) * scale));
+        int layerHeight = roundUp((int) Math.ceil((height + 2 * LAYER_MARGIN) * scale));
+        if (vectorLayer == null || vectorLayer.getWidth() != layerWidth || vectorLayer.getHeight() != layerHeight) {
+            // A compatible image matches the screen's pixel format and can be kept in video memory
+            vectorLayer = config != null
+                    ? config.createCompatibleImage(layerWidth, layerHeight, Transparency.TRANSLUCENT)
+                    : new BufferedImage(layerWidth, layerHeight, BufferedImage.TYPE_INT_ARGB);
+        }
+        layerScale = scale;
+        layerZoom = viewport.zoom();
+        layerOffsetX = viewport.offsetX() + LAYER_MARGIN;
+        layerOffsetY = viewport.offsetY() + LAYER_MARGIN;
+
+        Graphics2D g = vectorLayer.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, layerWidth, layerHeight);
+            g.setComposite(AlphaComposite.SrcOver);
+            g.setTransform(AffineTransform.getScaleInstance(scale, scale));
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            drawVectorLayer(g, (int) Math.ceil(layerWidth / scale), (int) Math.ceil(layerHeight / scale));
+        } finally {
+            g.dispose();
+        }
+        layerValid = true;
+        layerBuilds++;
+    }
+
+    private static int roundUp(int pixels) {
+        return (Math.max(pixels, 1) + LAYER_STEP - 1) / LAYER_STEP * LAYER_STEP;
+    }
+
+    // Layer pixel of a map coordinate
+    private int layerX(double mapX) {
+        return (int) Math.round(mapX * layerZoom) + layerOffsetX;
+    }
+
+    private int layerY(double mapY) {
+        return (int) Math.round(mapY * layerZoom) + layerOffsetY;
+    }
+
+    private void drawVectorLayer(Graphics2D g, int width, int height) {
+        // Grid for reference, every GRID_SPACING map units
+        g.setColor(GRID);
+        double spacing = GRID_SPACING * layerZoom;
+        for (double x = layerOffsetX - Math.floor(layerOffsetX / spacing) * spacing; x < width; x += spacing) {
+            g.drawLine((int) Math.round(x), 0, (int) Math.round(x), height);
+        }
+        for (double y = layerOffsetY - Math.floor(layerOffsetY / spacing) * spacing; y < height; y += spacing) {
+            g.drawLine(0, (int) Math.round(y), width, (int) Math.round(y));
+        }
+
+        // The campus walkways the router uses
+        g.setColor(WALKWAY);
+        g.setStroke(WALKWAY_STROKE);
+        for (Walkway walkway : walkways) {
+            Location loc1 = locations.get(walkway.from);
+            Location loc2 = locations.get(walkway.to);
+            if (loc1 != null && loc2 != null) {
+                g.drawLine(layerX(loc1.x), layerY(loc1.y), layerX(loc2.x), layerY(loc2.y));
+            }
+        }
+
+        // Every location with its name centred above it
+        g.setFont(LABEL_FONT);
+        FontMetrics fm = g.getFontMetrics();
+        for (Location location : locations.values()) {
+            int x = layerX(location.x);
+            int y = layerY(location.y);
+            g.setColor(locationColor(location.type));
+            g.fillOval(x - POINT_SIZE / 2, y - POINT_SIZE / 2, POINT_SIZE, POINT_SIZE);
+
+            g.setColor(Color.BLACK);
+            int textWidth = fm.stringWidth(location.name);
+            g.drawString(location.name, x - textWidth / 2, y - LABEL_OFFSET);
+        }
+    }
+
+    private void drawRoutes(Graphics2D g2d, List<Route> routes) {
+        g2d.setStroke(ROUTE_STROKE);
+        int colorIndex = 0;
+        for (Route route : routes) {
+            g2d.setColor(ROUTE_COLORS[colorIndex % ROUTE_COLORS.length]);
+            for (int i = 0; i < route.path.size() - 1; i++) {
+                Location from = locations.get(route.path.get(i));
+                Location to = locations.get(route.path.get(i + 1));
+                int x1 = viewport.screenX(from.x), y1 = viewport.screenY(from.y);
+                int x2 = viewport.screenX(to.x), y2 = viewport.screenY(to.y);
+                g2d.drawLine(x1, y1, x2, y2);
+                drawArrowHead(g2d, x1, y1, x2, y2);
+            }
+            colorIndex++;
+        }
+    }
+
+    private void drawArrowHead(Graphics2D g2d, int x1, int y1, int x2, int y2) {
+        double angle = Math.atan2(y2 - y1, x2 - x1);
+
+        int arrowX1 = (int) (x2 - ARROW_LENGTH * Math.cos(angle - Math.PI / 6));
+        int arrowY1 = (int) (y2 - ARROW_LENGTH * Math.sin(angle - Math.PI / 6));
+        int arrowX2 = (int) (x2 - ARROW_LENGTH * Math.cos(angle + Math.PI / 6));
+        int arrowY2 = (int) (y2 - ARROW_LENGTH * Math.sin(angle + Math.PI / 6));
+
+        g2d.drawLine(x2, y2, arrowX1, arrowY1);
+        g2d.drawLine(x2, y2, arrowX2, arrowY2);
+    }
+
+    static Color locationColor(LocationType type) {
+        switch (type) {
+            case ACADEMIC: return Color.BLUE;
+            case RESIDENTIAL: return Color.GREEN;
+            case ADMINISTRATIVE: return Color.RED;
+            case DINING: return Color.ORANGE;
+            case RECREATION: return Color.MAGENTA;
+            case MEDICAL: return Color.PINK;
+            case BANKING: return Color.YELLOW;
+            case SERVICE: return Color.CYAN;
+            case ENTRANCE: return Color.BLACK;
+            case RESEARCH: return Color.DARK_GRAY;
+            case EVENT: return Color.LIGHT_GRAY;
+            default: return Color.GRAY;
+        }
+    }
+}
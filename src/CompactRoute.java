@@ -0,0 +1,199 @@
+// CompactRoute.java
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+// A route as flat arrays: the node ids in walking order and the cumulative distance and
+// time at each of them. Location names are not stored; names() is a read-only view that
+// looks each one up in the graph when it is read, so a route that is only measured,
+// compared or serialised by id never builds its name list.
+//
+// Routes are put together in a Builder; build() copies out exactly-sized arrays once a
+// route is kept. Platform threads (the Swing thread, BatchRouter's workers) keep one
+// builder each and reuse its arrays from route to route. A virtual thread serves a single
+// request and is then gone, so a thread-local would only pin a builder per request; those
+// threads get a fresh builder instead.
+final class CompactRoute {
+    final CampusGraph graph;
+    final int[] nodes;
+    final double[] distances; // metres walked on arrival at nodes[i]; distances[0] == 0
+    final double[] times;     // minutes walked on arrival at nodes[i]
+    private List<String> names;
+
+    private CompactRoute(CampusGraph graph, int[] nodes, double[] distances, double[] times) {
+        this.graph = graph;
+        this.nodes = nodes;
+        this.distances = distances;
+        this.times = times;
+    }
+
+    // Route along path (node ids), or null when path is null
+    static CompactRoute of(CampusGraph graph, int[] path) {
+        if (path == null) return null;
+        Builder builder = builder(graph);
+        for (int node : path) {
+            builder.add(node);
+        }
+        return builder.build();
+    }
+
+    // Route along path with walking times measured elsewhere instead of the graph's static
+    // ones, e.g. under time-of-day congestion: times[i] is minutes walked on arrival at
+    // path[i]. Null when path is null.
+    static CompactRoute of(CampusGraph graph, int[] path, double[] times) {
+        if (path == null) return null;
+        if (times.length != path.length) {
+            throw new IllegalArgumentException("Expected " + path.length + " arrival times, got " + times.length);
+        }
+        CompactRoute route = of(graph, path);
+        return new CompactRoute(graph, route.nodes, route.distances, times.clone());
+    }
+
+    // Route to target in a search tree, or null when the tree does not reach it
+    static CompactRoute fromTree(CampusGraph graph, ShortestPathTree tree, int target) {
+        Builder builder = builder(graph);
+        return builder.fromTree(tree, target) ? builder.build() : null;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public int node(int i) {
+        return nodes[i];
+    }
+
+    public String name(int i) {
+        return graph.name(nodes[i]);
+    }
+
+    public double distance() {
+        return distances[distances.length - 1];
+    }
+
+    public double time() {
+        return times[times.length - 1];
+    }
+
+    public boolean samePath(CompactRoute other) {
+        return Arrays.equals(nodes, other.nodes);
+    }
+
+    // Location names along the route, looked up as they are read
+    public List<String> names() {
+        if (names == null) names = new NameView();
+        return names;
+    }
+
+    private final class NameView extends AbstractList<String> implements RandomAccess {
+        @Override
+        public String get(int index) {
+            return graph.name(nodes[index]);
+        }
+
+        @Override
+        public int size() {
+            return nodes.length;
+        }
+    }
+
+    private static final ThreadLocal<Builder> BUILDERS = ThreadLocal.withInitial(Builder::new);
+
+    // A builder emptied and set to graph: this thread's own on a platform thread, where it
+    // stays valid until the next builder() call on the same thread, so routes must not be
+    // built in a nested way; a new one on a virtual thread.
+    static Builder builder(CampusGraph graph) {
+        Builder builder = Thread.currentThread().isVirtual() ? new Builder() : BUILDERS.get();
+        return builder.reset(graph);
+    }
+
+    static final class Builder {
+        private CampusGraph graph;
+        private int[] nodes = new int[64];
+        private double[] distances = new double[64];
+        private double[] times = new double[64];
+        private int size;
+
+        private Builder() {
+        }
+
+        private Builder reset(CampusGraph graph) {
+            this.graph = graph;
+            size = 0;
+            return this;
+        }
+
+        // Appends node, walking the edge from the current last node to it
+        Builder add(int node) {
+            ensureCapacity(size + 1);
+            nodes[size] = node;
+            if (size == 0) {
+                distances[0] = 0;
+                times[0] = 0;
+            } else {
+                int e = graph.findEdge(nodes[size - 1], node);
+                distances[size] = distances[size - 1] + graph.distance(e);
+                times[size] = times[size - 1] + graph.time(e);
+            }
+            size++;
+            return this;
+        }
+
+        // Replaces the contents with the tree's path to target, written back to front from
+        // the predecessors; false (and empty) when the tree does not reach target
+        boolean fromTree(ShortestPathTree tree, int target) {
+            size = 0;
+            if (!tree.reaches(target)) return false;
+
+            int length = 0;
+            for (int node = target; node != -1; node = tree.previous[node]) {
+                length++;
+            }
+            ensureCapacity(length);
+            int i = length;
+            for (int node = target; node != -1; node = tree.previous[node]) {
+                nodes[--i] = node;
+            }
+
+            distances[0] = 0;
+            times[0] = 0;
+            for (i = 1; i < length; i++) {
+                int e = graph.findEdge(nodes[i - 1], nodes[i]);
+                distances[i] = distances[i - 1] + graph.distance(e);
+                times[i] = times[i - 1] + graph.time(e);
+            }
+            size = length;
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int node(int i) {
+            return nodes[i];
+        }
+
+        double distance() {
+            return size == 0 ? 0 : distances[size - 1];
+        }
+
+        double time() {
+            return size == 0 ? 0 : times[size - 1];
+        }
+
+        CompactRoute build() {
+            return new CompactRoute(graph, Arrays.copyOf(nodes, size),
+                    Arrays.copyOf(distances, size), Arrays.copyOf(times, size));
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= nodes.length) return;
+            int grown = Math.max(capacity, nodes.length * 2);
+            nodes = Arrays.copyOf(nodes, grown);
+            distances = Arrays.copyOf(distances, grown);
+            times = Arrays.copyOf(times, grown);
+        }
+    }
+}
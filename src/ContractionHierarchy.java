@@ -0,0 +1,555 @@
+// ContractionHierarchy.java
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Contraction hierarchy over a CampusGraph for fast point-to-point queries.
+// Preprocessing removes ("contracts") nodes one layer at a time, adding a shortcut u -> w
+// whenever u -> v -> w was the only shortest connection left between the remaining nodes.
+// The order in which nodes are contracted is their rank. A query then runs Dijkstra only
+// upwards in rank from both ends and unpacks the shortcuts on the best meeting path, so it
+// touches a few hundred nodes where a plain Dijkstra search settles most of the graph.
+// The hierarchy is immutable once built and can be queried from any thread.
+final class ContractionHierarchy {
+    // Witness searches give up after this many settled nodes and add the shortcut instead;
+    // an unnecessary shortcut costs a little query time but never a wrong answer
+    private static final int WITNESS_SETTLE_LIMIT = 256;
+
+    private final CampusGraph.Metric metric;
+    private final int[] rank;
+    private final UpwardGraph upward;   // u -> w with rank[w] > rank[u], stored on row u
+    private final UpwardGraph downward; // u -> w with rank[u] > rank[w], stored on row w
+    private final int shortcuts;
+
+    private ContractionHierarchy(CampusGraph.Metric metric, int[] rank,
+                                 UpwardGraph upward, UpwardGraph downward) {
+        this.metric = metric;
+        this.rank = rank;
+        this.upward = upward;
+        this.downward = downward;
+        this.shortcuts = upward.shortcutCount() + downward.shortcutCount();
+    }
+
+    // Contracts the graph in rounds. Each round picks an independent set of nodes whose
+    // priority is a local minimum among their neighbours and contracts them in parallel;
+    // the shortcuts found are then applied and the neighbours' priorities refreshed.
+    public static ContractionHierarchy build(CampusGraph graph, CampusGraph.Metric metric) {
+        return new Builder(graph, metric).build();
+    }
+
+    public CampusGraph.Metric metric() {
+        return metric;
+    }
+
+    public int size() {
+        return rank.length;
+    }
+
+    public int shortcutCount() {
+        return shortcuts;
+    }
+
+    // Bidirectional upward search. Each side stops once its smallest key reaches the best
+    // meeting cost; nodesExpanded counts the nodes settled by both sides together.
+    public SearchResult query(int source, int target) {
+        if (source == target) {
+            return new SearchResult(new int[]{source}, 0.0, 1);
+        }
+
+        SearchStats.Probe probe = SearchStats.begin(SearchStats.Algorithm.CONTRACTION_HIERARCHY);
+        int n = rank.length;
+        double[] distForward = new double[n];
+        double[] distBackward = new double[n];
+        int[] edgeForward = new int[n];  // upward edge id that reached the node
+        int[] edgeBackward = new int[n]; // downward edge id that reached the node
+        int[] parentForward = new int[n];
+        int[] parentBackward = new int[n];
+        Arrays.fill(distForward, Double.POSITIVE_INFINITY);
+        Arrays.fill(distBackward, Double.POSITIVE_INFINITY);
+
+        IndexedMinHeap forward = new IndexedMinHeap(n);
+        IndexedMinHeap backward = new IndexedMinHeap(n);
+        distForward[source] = 0.0;
+        distBackward[target] = 0.0;
+        parentForward[source] = -1;
+        parentBackward[target] = -1;
+        forward.insert(source, 0.0);
+        backward.insert(target, 0.0);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        int expanded = 0;
+        long relaxed = 0;
+        while (true) {
+            boolean forwardDone = forward.isEmpty() || forward.minKey() >= best;
+            boolean backwardDone = backward.isEmpty() || backward.minKey() >= best;
+            if (forwardDone && backwardDone) break;
+            if ((++expanded & 0xFF) == 0) QueryCancellation.checkpoint();
+
+            boolean stepForward = !forwardDone && (backwardDone || forward.minKey() <= backward.minKey());
+            UpwardGraph edges = stepForward ? upward : downward;
+            IndexedMinHeap heap = stepForward ? forward : backward;
+            double[] dist = stepForward ? distForward : distBackward;
+            double[] otherDist = stepForward ? distBackward : distForward;
+            int[] parent = stepForward ? parentForward : parentBackward;
+            int[] parentEdge = stepForward ? edgeForward : edgeBackward;
+
+            int current = heap.pollMin();
+            double currentDistance = dist[current];
+            relaxed += edges.offsets[current + 1] - edges.offsets[current];
+            if (currentDistance + otherDist[current] < best) {
+                best = currentDistance + otherDist[current];
+                meeting = current;
+            }
+
+            for (int e = edges.offsets[current]; e < edges.offsets[current + 1]; e++) {
+                int neighbor = edges.nodes[e];
+                double d = currentDistance + edges.weights[e];
+                if (d < dist[neighbor]) {
+                    dist[neighbor] = d;
+                    parent[neighbor] = current;
+                    parentEdge[neighbor] = e;
+                    heap.insertOrDecrease(neighbor, d);
+                }
+            }
+        }
+
+        if (probe != null) probe.end(expanded, relaxed, forward, backward);
+        if (meeting == -1) {
+            return new SearchResult(null, Double.POSITIVE_INFINITY, expanded);
+        }
+
+        // The forward half is collected meeting -> source, so gather its edges first
+        int hops = 0;
+        for (int node = meeting; node != source; node = parentForward[node]) {
+            hops++;
+        }
+        int[] forwardEdges = new int[hops];
+        for (int node = meeting, i = hops; node != source; node = parentForward[node]) {
+            forwardEdges[--i] = edgeForward[node];
+        }
+
+        PathBuilder path = new PathBuilder();
+        path.add(source);
+        int from = source;
+        for (int e : forwardEdges) {
+            int to = upward.nodes[e];
+            unpack(from, to, upward.middles[e], path);
+            from = to;
+        }
+        for (int node = meeting; node != target; node = parentBackward[node]) {
+            int e = edgeBackward[node];
+            unpack(node, parentBackward[node], downward.middles[e], path);
+        }
+        return new SearchResult(path.toArray(), best, expanded);
+    }
+
+    // Appends the original nodes of edge from -> to (excluding from) to the path. A shortcut
+    // via middle is made of from -> middle, stored on middle's downward row because middle was
+    // contracted first, and middle -> to, stored on its upward row.
+    private void unpack(int from, int to, int middle, PathBuilder path) {
+        if (middle == -1) {
+            path.add(to);
+            return;
+        }
+        unpack(from, middle, downward.middles[downward.find(middle, from)], path);
+        unpack(middle, to, upward.middles[upward.find(middle, to)], path);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Contraction hierarchy: %d nodes, %d shortcuts", rank.length, shortcuts);
+    }
+
+    // CSR rows of edges towards higher ranked nodes; middle is -1 for original edges
+    private static final class UpwardGraph {
+        final int[] offsets;
+        final int[] nodes;
+        final double[] weights;
+        final int[] middles;
+
+        UpwardGraph(int[] offsets, int[] nodes, double[] weights, int[] middles) {
+            this.offsets = offsets;
+            this.nodes = nodes;
+            this.weights = weights;
+            this.middles = middles;
+        }
+
+        // Keeps the entries of each row whose other end outranks the row's node
+        static UpwardGraph of(EdgeLists lists, int[] rank) {
+            int n = rank.length;
+            int[] offsets = new int[n + 1];
+            for (int v = 0; v < n; v++) {
+                int count = 0;
+                for (int i = 0; i < lists.sizes[v]; i++) {
+                    if (rank[lists.nodes[v][i]] > rank[v]) count++;
+                }
+                offsets[v + 1] = offsets[v] + count;
+            }
+
+            int m = offsets[n];
+            int[] nodes = new int[m];
+            double[] weights = new double[m];
+            int[] middles = new int[m];
+            for (int v = 0; v < n; v++) {
+                int e = offsets[v];
+                for (int i = 0; i < lists.sizes[v]; i++) {
+                    int other = lists.nodes[v][i];
+                    if (rank[other] <= rank[v]) continue;
+                    nodes[e] = other;
+                    weights[e] = lists.weights[v][i];
+                    middles[e] = lists.middles[v][i];
+                    e++;
+                }
+            }
+            return new UpwardGraph(offsets, nodes, weights, middles);
+        }
+
+        int find(int row, int node) {
+            for (int e = offsets[row]; e < offsets[row + 1]; e++) {
+                if (nodes[e] == node) return e;
+            }
+            throw new IllegalStateException("Missing hierarchy edge " + row + " - " + node);
+        }
+
+        int shortcutCount() {
+            int count = 0;
+            for (int middle : middles) {
+                if (middle != -1) count++;
+            }
+            return count;
+        }
+    }
+
+    // Growable per-node edge lists used while contracting; at most one entry per neighbour
+    private static final class EdgeLists {
+        final int[][] nodes;
+        final double[][] weights;
+        final int[][] middles;
+        final int[] sizes;
+
+        EdgeLists(int n) {
+            nodes = new int[n][];
+            weights = new double[n][];
+            middles = new int[n][];
+            sizes = new int[n];
+        }
+
+        int find(int row, int node) {
+            int[] rowNodes = nodes[row];
+            for (int i = 0; i < sizes[row]; i++) {
+                if (rowNodes[i] == node) return i;
+            }
+            return -1;
+        }
+
+        // Adds the entry, or lowers the weight of an existing entry for the same neighbour
+        void add(int row, int node, double weight, int middle) {
+            int i = find(row, node);
+            if (i >= 0) {
+                if (weight < weights[row][i]) {
+                    weights[row][i] = weight;
+                    middles[row][i] = middle;
+                }
+                return;
+            }
+
+            if (nodes[row] == null) {
+                nodes[row] = new int[4];
+                weights[row] = new double[4];
+                middles[row] = new int[4];
+            } else if (sizes[row] == nodes[row].length) {
+                int capacity = sizes[row] * 2;
+                nodes[row] = Arrays.copyOf(nodes[row], capacity);
+                weights[row] = Arrays.copyOf(weights[row], capacity);
+                middles[row] = Arrays.copyOf(middles[row], capacity);
+            }
+            int slot = sizes[row]++;
+            nodes[row][slot] = node;
+            weights[row][slot] = weight;
+            middles[row][slot] = middle;
+        }
+
+        // Removes the entry for node, if any, by moving the last entry into its slot
+        void remove(int row, int node) {
+            int i = find(row, node);
+            if (i < 0) return;
+            int last = --sizes[row];
+            nodes[row][i] = nodes[row][last];
+            weights[row][i] = weights[row][last];
+            middles[row][i] = middles[row][last];
+        }
+    }
+
+    // Shortcuts found for one contracted node
+    private static final class Shortcuts {
+        int size;
+        int[] sources = new int[4];
+        int[] targets = new int[4];
+        double[] weights = new double[4];
+
+        void add(int source, int target, double weight) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            weights[size++] = weight;
+        }
+    }
+
+    // Per-thread witness search state, reset by walking the touched nodes only
+    private static final class Workspace {
+        final double[] dist;
+        final int[] touched;
+        int touchedCount;
+        final IndexedMinHeap heap;
+        final int[] target; // == stamp for the targets of the current search
+        int stamp;
+
+        Workspace(int n) {
+            dist = new double[n];
+            touched = new int[n];
+            target = new int[n];
+            heap = new IndexedMinHeap(n);
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        }
+
+        void set(int node, double distance) {
+            if (dist[node] == Double.POSITIVE_INFINITY) touched[touchedCount++] = node;
+            dist[node] = distance;
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            heap.clear();
+        }
+    }
+
+    private static final class Builder {
+        private final CampusGraph.Metric metric;
+        private final int n;
+        private final EdgeLists out;
+        private final EdgeLists in;
+        private final boolean[] contracted;
+        private final int[] priority;
+        private final int[] contractedNeighbors;
+        private final int[] rank;
+        private final ThreadLocal<Workspace> workspace;
+
+        Builder(CampusGraph graph, CampusGraph.Metric metric) {
+            this.metric = metric;
+            this.n = graph.size();
+            this.out = new EdgeLists(n);
+            this.in = new EdgeLists(n);
+            this.contracted = new boolean[n];
+            this.priority = new int[n];
+            this.contractedNeighbors = new int[n];
+            this.rank = new int[n];
+            this.workspace = ThreadLocal.withInitial(() -> new Workspace(n));
+
+            for (int u = 0; u < n; u++) {
+                for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                    int v = graph.target(e);
+                    double w = graph.weight(e, metric);
+                    out.add(u, v, w, -1);
+                    in.add(v, u, w, -1);
+                }
+            }
+        }
+
+        ContractionHierarchy build() {
+            IntStream.range(0, n).parallel().forEach(v -> priority[v] = priority(v));
+
+            int[] remaining = IntStream.range(0, n).toArray();
+            boolean[] dirty = new boolean[n];
+            int nextRank = 0;
+            while (remaining.length > 0) {
+                QueryCancellation.checkpoint();
+
+                int[] batch = IntStream.of(remaining).parallel().filter(this::isLocalMinimum).toArray();
+                for (int v : batch) {
+                    contracted[v] = true;
+                }
+
+                // Witness searches treat the whole batch as already contracted, so two batch
+                // nodes can never rely on each other as witnesses
+                Shortcuts[] found = new Shortcuts[batch.length];
+                IntStream.range(0, batch.length).parallel().forEach(i -> {
+                    found[i] = new Shortcuts();
+                    findShortcuts(batch[i], found[i]);
+                });
+
+                int dirtyCount = 0;
+                int[] dirtyNodes = new int[n];
+                for (int i = 0; i < batch.length; i++) {
+                    int v = batch[i];
+                    rank[v] = nextRank++;
+                    Shortcuts shortcuts = found[i];
+                    for (int s = 0; s < shortcuts.size; s++) {
+                        out.add(shortcuts.sources[s], shortcuts.targets[s], shortcuts.weights[s], v);
+                        in.add(shortcuts.targets[s], shortcuts.sources[s], shortcuts.weights[s], v);
+                    }
+                    dirtyCount = markNeighbors(v, out, dirty, dirtyNodes, dirtyCount);
+                    dirtyCount = markNeighbors(v, in, dirty, dirtyNodes, dirtyCount);
+                    detach(v);
+                }
+
+                IntStream.range(0, dirtyCount).parallel().forEach(i -> priority[dirtyNodes[i]] = priority(dirtyNodes[i]));
+                for (int i = 0; i < dirtyCount; i++) {
+                    dirty[dirtyNodes[i]] = false;
+                }
+
+                remaining = IntStream.of(remaining).filter(v -> !contracted[v]).toArray();
+            }
+
+            return new ContractionHierarchy(metric, rank, UpwardGraph.of(out, rank), UpwardGraph.of(in, rank));
+        }
+
+        // Drops v from its neighbours' rows so they only list uncontracted nodes. v keeps its
+        // own rows: they become its upward and downward edges in the finished hierarchy.
+        private void detach(int v) {
+            for (int i = 0; i < out.sizes[v]; i++) {
+                int neighbor = out.nodes[v][i];
+                if (!contracted[neighbor]) in.remove(neighbor, v);
+            }
+            for (int i = 0; i < in.sizes[v]; i++) {
+                int neighbor = in.nodes[v][i];
+                if (!contracted[neighbor]) out.remove(neighbor, v);
+            }
+        }
+
+        private int markNeighbors(int v, EdgeLists lists, boolean[] dirty, int[] dirtyNodes, int dirtyCount) {
+            for (int i = 0; i < lists.sizes[v]; i++) {
+                int neighbor = lists.nodes[v][i];
+                if (contracted[neighbor] || dirty[neighbor]) continue;
+                dirty[neighbor] = true;
+                contractedNeighbors[neighbor]++;
+                dirtyNodes[dirtyCount++] = neighbor;
+            }
+            return dirtyCount;
+        }
+
+        // Edge difference (shortcuts added minus edges removed) plus contracted neighbours,
+        // which spreads contraction evenly over the graph
+        private int priority(int v) {
+            int degree = 0;
+            for (int i = 0; i < out.sizes[v]; i++) {
+                if (!contracted[out.nodes[v][i]]) degree++;
+            }
+            for (int i = 0; i < in.sizes[v]; i++) {
+                if (!contracted[in.nodes[v][i]]) degree++;
+            }
+            return findShortcuts(v, null) - degree + contractedNeighbors[v];
+        }
+
+        // True when v beats every uncontracted neighbour on (priority, hashed id)
+        private boolean isLocalMinimum(int v) {
+            return beatsNeighbors(v, out) && beatsNeighbors(v, in);
+        }
+
+        private boolean beatsNeighbors(int v, EdgeLists lists) {
+            for (int i = 0; i < lists.sizes[v]; i++) {
+                int neighbor = lists.nodes[v][i];
+                if (contracted[neighbor]) continue;
+                if (priority[neighbor] < priority[v]) return false;
+                if (priority[neighbor] == priority[v] && tieBreak(neighbor) < tieBreak(v)) return false;
+            }
+            return true;
+        }
+
+        // Odd multiplier: a bijection on ints, but no longer ordered like the grid layout
+        private static int tieBreak(int v) {
+            return v * 0x9E3779B9;
+        }
+
+        // Counts (and, when result is non-null, records) the shortcuts needed to contract v:
+        // one for each u -> v -> w with no witness path at most as short avoiding v
+        private int findShortcuts(int v, Shortcuts result) {
+            int count = 0;
+            double maxOut = 0;
+            for (int j = 0; j < out.sizes[v]; j++) {
+                if (!contracted[out.nodes[v][j]]) maxOut = Math.max(maxOut, out.weights[v][j]);
+            }
+
+            Workspace ws = workspace.get();
+            for (int i = 0; i < in.sizes[v]; i++) {
+                int u = in.nodes[v][i];
+                if (contracted[u]) continue;
+                double toV = in.weights[v][i];
+
+                // Direct edges settle most candidates; only search when one is left open
+                boolean search = false;
+                for (int j = 0; j < out.sizes[v] && !search; j++) {
+                    int w = out.nodes[v][j];
+                    if (contracted[w] || w == u) continue;
+                    int direct = out.find(u, w);
+                    search = direct < 0 || out.weights[u][direct] > toV + out.weights[v][j];
+                }
+                if (!search) continue;
+
+                ws.stamp++;
+                int targets = 0;
+                for (int j = 0; j < out.sizes[v]; j++) {
+                    int w = out.nodes[v][j];
+                    if (contracted[w] || w == u || ws.target[w] == ws.stamp) continue;
+                    ws.target[w] = ws.stamp;
+                    targets++;
+                }
+                witnessSearch(u, v, toV + maxOut, targets, ws);
+                for (int j = 0; j < out.sizes[v]; j++) {
+                    int w = out.nodes[v][j];
+                    if (contracted[w] || w == u) continue;
+                    double via = toV + out.weights[v][j];
+                    if (ws.dist[w] > via) {
+                        count++;
+                        if (result != null) result.add(u, w, via);
+                    }
+                }
+                ws.reset();
+            }
+            return count;
+        }
+
+        // Bounded Dijkstra from source over uncontracted nodes, never passing through via;
+        // stops early once every node marked as a target in the workspace is settled
+        private void witnessSearch(int source, int via, double limit, int targets, Workspace ws) {
+            ws.set(source, 0.0);
+            ws.heap.insert(source, 0.0);
+            int settled = 0;
+            while (!ws.heap.isEmpty() && ws.heap.minKey() <= limit && settled++ < WITNESS_SETTLE_LIMIT) {
+                int current = ws.heap.pollMin();
+                if (ws.target[current] == ws.stamp && --targets == 0) break;
+                double currentDistance = ws.dist[current];
+                for (int i = 0; i < out.sizes[current]; i++) {
+                    int neighbor = out.nodes[current][i];
+                    if (neighbor == via || contracted[neighbor]) continue;
+                    double d = currentDistance + out.weights[current][i];
+                    if (d < ws.dist[neighbor]) {
+                        ws.set(neighbor, d);
+                        ws.heap.insertOrDecrease(neighbor, d);
+                    }
+                }
+            }
+        }
+    }
+
+    // Growable int array for unpacked paths
+    private static final class PathBuilder {
+        private int[] nodes = new int[16];
+        private int size;
+
+        void add(int node) {
+            if (size == nodes.length) nodes = Arrays.copyOf(nodes, size * 2);
+            nodes[size++] = node;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(nodes, size);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+// DijkstraEngine.java
+import java.util.Arrays;
+
+// Dijkstra's algorithm over a CampusGraph using an indexed binary heap with decrease-key.
+// The engine itself is stateless, so one instance can be shared between threads.
+final class DijkstraEngine {
+    private final CampusGraph graph;
+
+    public DijkstraEngine(CampusGraph graph) {
+        this.graph = graph;
+    }
+
+    // Runs from source until target is settled, or over the whole graph when target is -1
+    public ShortestPathTree search(int source, int target, CampusGraph.Metric metric) {
+        SearchStats.Probe probe = SearchStats.begin(SearchStats.Algorithm.DIJKSTRA);
+        int n = graph.size();
+        boolean byTime = metric == CampusGraph.Metric.TIME;
+
+        double[] distances = new double[n];
+        int[] previous = new int[n];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, -1);
+
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        distances[source] = 0.0;
+        heap.insert(source, 0.0);
+
+        int settled = 0;
+        long relaxed = 0;
+        while (!heap.isEmpty()) {
+            int current = heap.pollMin();
+            if (current == target) break;
+            if ((++settled & 0xFF) == 0) QueryCancellation.checkpoint();
+
+            double currentDistance = distances[current];
+            relaxed += graph.edgeEnd(current) - graph.edgeStart(current);
+            for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+                int neighbor = graph.target(e);
+                double newDist = currentDistance + (byTime ? graph.time(e) : graph.distance(e));
+                if (newDist < distances[neighbor]) {
+                    distances[neighbor] = newDist;
+                    previous[neighbor] = current;
+                    heap.insertOrDecrease(neighbor, newDist);
+                }
+            }
+        }
+
+        if (probe != null) probe.end(settled, relaxed, heap);
+        return new ShortestPathTree(graph, source, distances, previous);
+    }
+
+    public ShortestPathTree search(int source, CampusGraph.Metric metric) {
+        return search(source, -1, metric);
+    }
+}
@@ -514,7 +514,7 @@
 //
 //        if (wantsFastest) {
 //            List<Route> routes = calculator.findRoutesDijkstra(from, to);
-//            MergeSort.sortRoutesByTime(routes);
+//            RouteRanking.sort(routes, RouteRanking.Key.TIME);
 //            response.append("FASTEST ROUTE:\n");
 //            if (!routes.isEmpty()) {
 //                Route fastest = routes.get(0);
@@ -523,7 +523,7 @@
 //            }
 //        } else if (wantsShortest) {
 //            List<Route> routes = calculator.findRoutesDijkstra(from, to);
-//            QuickSort.sortRoutesByDistance(routes);
+//            RouteRanking.sort(routes, RouteRanking.Key.DISTANCE);
 //            response.append("SHORTEST ROUTE:\n");
 //            if (!routes.isEmpty()) {
 //                Route shortest = routes.get(0);
@@ -0,0 +1,42 @@
+// GraphCompiler.java
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+// Offline tool: compiles the campus data into a binary graph file that UGNavigateApp
+// and Main memory-map at startup instead of rebuilding the graph (see GraphFile).
+// Rerun it whenever CampusData changes.
+//
+//   java -cp ug-navigate.jar GraphCompiler [campus.graph] [--all-pairs]
+public class GraphCompiler {
+    public static void main(String[] args) throws IOException {
+        Path output = Paths.get(UGNavigateApp.GRAPH_FILE);
+        boolean withAllPairs = false;
+        for (String arg : args) {
+            if (arg.equals("--all-pairs")) {
+                withAllPairs = true;
+            } else {
+                output = Paths.get(arg);
+            }
+        }
+
+        long start = System.nanoTime();
+        Map<String, Location> locations = CampusData.createLocations();
+        List<Walkway> walkways = CampusData.createWalkways(locations);
+        CampusGraph graph = CampusGraph.fromWalkways(locations, walkways);
+        AllPairsTable allPairs = withAllPairs ? AllPairsTable.compute(graph, CampusGraph.Metric.DISTANCE) : null;
+        long bytes = GraphFile.write(output, graph, allPairs, GraphFile.sourceHash(locations, walkways));
+
+        // Read it back so a broken file never replaces a working one unnoticed
+        GraphFile check = GraphFile.open(output);
+        if (check.graph.size() != graph.size() || check.graph.edgeCount() != graph.edgeCount()) {
+            throw new IOException("Verification of " + output + " failed");
+        }
+
+        System.err.printf("Wrote %s: %d locations, %d edges%s, %d bytes in %.1f ms%n",
+                output, graph.size(), graph.edgeCount(), withAllPairs ? ", all-pairs table" : "",
+                bytes, (System.nanoTime() - start) / 1e6);
+    }
+}
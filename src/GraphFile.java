@@ -0,0 +1,396 @@
+// GraphFile.java
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Compact binary campus graph, written offline by GraphCompiler and memory-mapped at
+// startup. Every section is a little-endian primitive array aligned to 8 bytes, so
+// opening a file only maps it and creates buffer views: CampusGraph and AllPairsTable
+// read their data straight from the mapping instead of deserialising it onto the heap.
+//
+//   header      magic "UGNG", version, node count n, edge count m, flags, source hash,
+//               lower-bound factors, and the byte offset of every section
+//   nodes       x int[n], y int[n], type ordinal byte[n]
+//   names       UTF-8 pool with start offsets int[n + 1], and the node ids sorted by
+//               name bytes int[n] so a name lookup is a binary search over the pool
+//   edges       CSR offsets int[n + 1], targets int[m], distances double[m], times double[m]
+//   all-pairs   optional Floyd-Warshall distances double[n * n] and next hops int[n * n]
+final class GraphFile {
+    private static final int MAGIC = 0x474E4755; // "UGNG" read little-endian
+    private static final int VERSION = 2;
+    private static final int FLAG_ALL_PAIRS = 1;
+
+    private static final int X = 0, Y = 1, TYPES = 2, NAME_OFFSETS = 3, NAME_POOL = 4, NAME_ORDER = 5,
+            EDGE_OFFSETS = 6, EDGE_TARGETS = 7, EDGE_DISTANCES = 8, EDGE_TIMES = 9,
+            ALL_PAIRS_DIST = 10, ALL_PAIRS_NEXT = 11;
+    private static final int SECTIONS = 12;
+    private static final int HEADER_SIZE = 40 + SECTIONS * 8;
+
+    public final CampusGraph graph;
+    public final AllPairsTable allPairs; // by distance; null when the file has none
+    public final int sourceHash;         // sourceHash() of the data it was compiled from
+    public final long bytes;
+
+    private GraphFile(CampusGraph graph, AllPairsTable allPairs, int sourceHash, long bytes) {
+        this.graph = graph;
+        this.allPairs = allPairs;
+        this.sourceHash = sourceHash;
+        this.bytes = bytes;
+    }
+
+    // Fingerprint of the locations and walkways a graph is compiled from. It is stored in
+    // the header, so a file left over from before a CampusData edit can be told apart.
+    public static int sourceHash(Map<String, Location> locations, List<Walkway> walkways) {
+        List<String> names = new ArrayList<>(locations.keySet());
+        Collections.sort(names);
+        int hash = 1;
+        for (String name : names) {
+            Location location = locations.get(name);
+            hash = 31 * hash + Objects.hash(name, location.x, location.y, location.type.name());
+        }
+        for (Walkway walkway : walkways) {
+            hash = 31 * hash + Objects.hash(walkway.from, walkway.to, walkway.length, walkway.walkingTime);
+        }
+        return hash;
+    }
+
+    // Maps a compiled graph file read-only. The mapping stays valid after the channel
+    // is closed and is released once the graph is no longer referenced.
+    public static GraphFile open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Graph file too large to map: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a campus graph file: " + path);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported graph file version " + buffer.getInt(4) + ": " + path);
+        }
+        int n = buffer.getInt(8);
+        int m = buffer.getInt(12);
+        int flags = buffer.getInt(16);
+        int sourceHash = buffer.getInt(20);
+        double distancePerUnit = buffer.getDouble(24);
+        double timePerUnit = buffer.getDouble(32);
+        check(n >= 0 && m >= 0, "negative node or edge count");
+        check(distancePerUnit >= 0 && distancePerUnit < Double.POSITIVE_INFINITY
+                && timePerUnit >= 0 && timePerUnit < Double.POSITIVE_INFINITY, "invalid lower-bound factors");
+
+        IntBuffer nameOffsets = section(buffer, NAME_OFFSETS, (n + 1) * 4L).asIntBuffer();
+        ByteBuffer pool = section(buffer, NAME_POOL, nameOffsets.get(n));
+        IntBuffer nameOrder = section(buffer, NAME_ORDER, n * 4L).asIntBuffer();
+        IntBuffer xs = section(buffer, X, n * 4L).asIntBuffer();
+        IntBuffer ys = section(buffer, Y, n * 4L).asIntBuffer();
+        ByteBuffer types = section(buffer, TYPES, n);
+        IntBuffer edgeOffsets = section(buffer, EDGE_OFFSETS, (n + 1) * 4L).asIntBuffer();
+        IntBuffer edgeTargets = section(buffer, EDGE_TARGETS, m * 4L).asIntBuffer();
+        DoubleBuffer edgeDistances = section(buffer, EDGE_DISTANCES, m * 8L).asDoubleBuffer();
+        DoubleBuffer edgeTimes = section(buffer, EDGE_TIMES, m * 8L).asDoubleBuffer();
+        validateNames(n, nameOffsets, pool, nameOrder);
+        validateNodes(n, types);
+        validateEdges(n, m, edgeOffsets, edgeTargets, edgeDistances, edgeTimes);
+
+        CampusGraph graph = new CampusGraph(new MappedNames(n, pool, nameOffsets, nameOrder), xs, ys, types,
+                edgeOffsets, edgeTargets, edgeDistances, edgeTimes, distancePerUnit, timePerUnit);
+
+        AllPairsTable allPairs = null;
+        if ((flags & FLAG_ALL_PAIRS) != 0) {
+            long cells = (long) n * n;
+            IntBuffer next = section(buffer, ALL_PAIRS_NEXT, cells * 4).asIntBuffer();
+            validateNextHops(graph, next);
+            allPairs = new AllPairsTable(n, section(buffer, ALL_PAIRS_DIST, cells * 8).asDoubleBuffer(), next);
+        }
+        return new GraphFile(graph, allPairs, sourceHash, buffer.capacity());
+    }
+
+    // The checks below run once on open and cover what the searches take for granted, so
+    // a damaged file fails here instead of as an index error inside a later query
+
+    // Name offsets ascend through the pool, and the lookup table is a permutation of the
+    // node ids in strictly ascending name order
+    private static void validateNames(int n, IntBuffer offsets, ByteBuffer pool, IntBuffer order)
+            throws IOException {
+        check(offsets.get(0) == 0, "name offsets do not start at 0");
+        for (int v = 0; v < n; v++) {
+            check(offsets.get(v) <= offsets.get(v + 1), "name offsets decrease at node " + v);
+        }
+
+        boolean[] seen = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            int node = order.get(i);
+            check(node >= 0 && node < n && !seen[node], "name order entry " + i + " is not a node id");
+            seen[node] = true;
+            if (i > 0) {
+                check(compareNames(pool, offsets, order.get(i - 1), node) < 0, "names out of order at " + i);
+            }
+        }
+    }
+
+    private static int compareNames(ByteBuffer pool, IntBuffer offsets, int a, int b) {
+        int aStart = offsets.get(a);
+        int bStart = offsets.get(b);
+        int aLength = offsets.get(a + 1) - aStart;
+        int bLength = offsets.get(b + 1) - bStart;
+        for (int i = 0; i < Math.min(aLength, bLength); i++) {
+            int cmp = Byte.compareUnsigned(pool.get(aStart + i), pool.get(bStart + i));
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(aLength, bLength);
+    }
+
+    private static void validateNodes(int n, ByteBuffer types) throws IOException {
+        int typeCount = LocationType.values().length;
+        for (int v = 0; v < n; v++) {
+            check(types.get(v) >= 0 && types.get(v) < typeCount, "unknown location type at node " + v);
+        }
+    }
+
+    // CSR offsets ascend from 0 to m, every row lists valid targets in strictly ascending
+    // order (findEdge binary searches it), and every weight is finite and non-negative
+    private static void validateEdges(int n, int m, IntBuffer offsets, IntBuffer targets,
+                                      DoubleBuffer distances, DoubleBuffer times) throws IOException {
+        check(offsets.get(0) == 0 && offsets.get(n) == m, "edge offsets do not span the edges");
+        for (int u = 0; u < n; u++) {
+            int start = offsets.get(u);
+            int end = offsets.get(u + 1);
+            check(start <= end, "edge offsets decrease at node " + u);
+            int previous = -1;
+            for (int e = start; e < end; e++) {
+                int v = targets.get(e);
+                check(v > previous && v < n, "edge " + e + " has target " + v + " out of range or order");
+                previous = v;
+                double distance = distances.get(e);
+                double time = times.get(e);
+                check(distance >= 0 && distance < Double.POSITIVE_INFINITY
+                        && time >= 0 && time < Double.POSITIVE_INFINITY, "edge " + e + " has an invalid weight");
+            }
+        }
+    }
+
+    // Every next hop is -1 or an edge out of its node, and following the hops towards a
+    // target reaches it, so AllPairsTable.path cannot run off the table or loop
+    private static void validateNextHops(CampusGraph graph, IntBuffer next) throws IOException {
+        int n = graph.size();
+        byte[] state = new byte[n]; // per target: 0 unvisited, 1 on the current walk, 2 reaches it
+        int[] walk = new int[n];
+        for (int to = 0; to < n; to++) {
+            Arrays.fill(state, (byte) 0);
+            check(next.get(to * n + to) == to, "all-pairs next hop of " + to + " to itself");
+            state[to] = 2;
+            for (int from = 0; from < n; from++) {
+                int length = 0;
+                int current = from;
+                while (state[current] == 0 && next.get(current * n + to) != -1) {
+                    int hop = next.get(current * n + to);
+                    check(hop >= 0 && hop < n && graph.findEdge(current, hop) >= 0,
+                            "all-pairs next hop " + current + " -> " + hop + " is not an edge");
+                    state[current] = 1;
+                    walk[length++] = current;
+                    current = hop;
+                }
+                check(state[current] != 1 && (length == 0 || state[current] == 2),
+                        "all-pairs next hops from " + from + " never reach " + to);
+                for (int i = 0; i < length; i++) {
+                    state[walk[i]] = 2;
+                }
+            }
+        }
+    }
+
+    private static void check(boolean valid, String problem) throws IOException {
+        if (!valid) throw new IOException("Corrupt graph file: " + problem);
+    }
+
+    private static ByteBuffer section(ByteBuffer buffer, int section, long length) throws IOException {
+        long offset = buffer.getLong(40 + section * 8);
+        if (offset < HEADER_SIZE || length < 0 || offset + length > buffer.capacity()) {
+            throw new IOException("Corrupt graph file: section " + section + " out of bounds");
+        }
+        return buffer.slice((int) offset, (int) length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Writes graph, and allPairs when not null, returning the file size in bytes
+    public static long write(Path path, CampusGraph graph, AllPairsTable allPairs, int sourceHash)
+            throws IOException {
+        int n = graph.size();
+        int m = graph.edgeCount();
+
+        byte[][] encoded = new byte[n][];
+        int poolSize = 0;
+        for (int v = 0; v < n; v++) {
+            encoded[v] = graph.name(v).getBytes(StandardCharsets.UTF_8);
+            poolSize += encoded[v].length;
+        }
+        Integer[] order = new Integer[n];
+        for (int v = 0; v < n; v++) {
+            order[v] = v;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(encoded[a], encoded[b]));
+
+        long cells = allPairs == null ? 0 : (long) n * n;
+        long[] lengths = new long[SECTIONS];
+        lengths[X] = n * 4L;
+        lengths[Y] = n * 4L;
+        lengths[TYPES] = n;
+        lengths[NAME_OFFSETS] = (n + 1) * 4L;
+        lengths[NAME_POOL] = poolSize;
+        lengths[NAME_ORDER] = n * 4L;
+        lengths[EDGE_OFFSETS] = (n + 1) * 4L;
+        lengths[EDGE_TARGETS] = m * 4L;
+        lengths[EDGE_DISTANCES] = m * 8L;
+        lengths[EDGE_TIMES] = m * 8L;
+        lengths[ALL_PAIRS_DIST] = cells * 8;
+        lengths[ALL_PAIRS_NEXT] = cells * 4;
+
+        long[] offsets = new long[SECTIONS];
+        long size = HEADER_SIZE;
+        for (int s = 0; s < SECTIONS; s++) {
+            offsets[s] = size;
+            size = (size + lengths[s] + 7) & ~7L;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Graph too large for a single mapped file (" + size + " bytes)");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, n);
+        buffer.putInt(12, m);
+        buffer.putInt(16, allPairs == null ? 0 : FLAG_ALL_PAIRS);
+        buffer.putInt(20, sourceHash);
+        buffer.putDouble(24, graph.perUnit(CampusGraph.Metric.DISTANCE));
+        buffer.putDouble(32, graph.perUnit(CampusGraph.Metric.TIME));
+        for (int s = 0; s < SECTIONS; s++) {
+            buffer.putLong(40 + s * 8, offsets[s]);
+        }
+
+        int nameStart = 0;
+        for (int v = 0; v < n; v++) {
+            buffer.putInt((int) offsets[X] + v * 4, graph.x(v));
+            buffer.putInt((int) offsets[Y] + v * 4, graph.y(v));
+            buffer.put((int) offsets[TYPES] + v, (byte) graph.type(v).ordinal());
+            buffer.putInt((int) offsets[NAME_OFFSETS] + v * 4, nameStart);
+            buffer.put((int) offsets[NAME_POOL] + nameStart, encoded[v]);
+            nameStart += encoded[v].length;
+            buffer.putInt((int) offsets[NAME_ORDER] + v * 4, order[v]);
+            buffer.putInt((int) offsets[EDGE_OFFSETS] + v * 4, graph.edgeStart(v));
+        }
+        buffer.putInt((int) offsets[NAME_OFFSETS] + n * 4, nameStart);
+        buffer.putInt((int) offsets[EDGE_OFFSETS] + n * 4, m);
+
+        for (int e = 0; e < m; e++) {
+            buffer.putInt((int) offsets[EDGE_TARGETS] + e * 4, graph.target(e));
+            buffer.putDouble((int) offsets[EDGE_DISTANCES] + e * 8, graph.distance(e));
+            buffer.putDouble((int) offsets[EDGE_TIMES] + e * 8, graph.time(e));
+        }
+
+        if (allPairs != null) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    int cell = i * n + j;
+                    buffer.putDouble((int) offsets[ALL_PAIRS_DIST] + cell * 8, allPairs.distance(i, j));
+                    buffer.putInt((int) offsets[ALL_PAIRS_NEXT] + cell * 4, allPairs.nextHop(i, j));
+                }
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return size;
+    }
+
+    // Location table for the map view, in node id order
+    public static Map<String, Location> locations(CampusGraph graph) {
+        Map<String, Location> locations = new LinkedHashMap<>(graph.size() * 2);
+        for (int v = 0; v < graph.size(); v++) {
+            locations.put(graph.name(v), new Location(graph.name(v), graph.x(v), graph.y(v), graph.type(v)));
+        }
+        return locations;
+    }
+
+    // One walkway per connected pair of nodes, for the map view
+    public static List<Walkway> walkways(CampusGraph graph) {
+        List<Walkway> walkways = new ArrayList<>(graph.edgeCount() / 2);
+        for (int u = 0; u < graph.size(); u++) {
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int v = graph.target(e);
+                if (u < v || graph.findEdge(v, u) < 0) {
+                    walkways.add(new Walkway(graph.name(u), graph.name(v), graph.distance(e), graph.time(e)));
+                }
+            }
+        }
+        return walkways;
+    }
+
+    // Names decoded from the mapped pool on first use; lookups binary search the
+    // name-sorted id table comparing raw UTF-8 bytes
+    private static final class MappedNames implements CampusGraph.NameTable {
+        private final ByteBuffer pool;
+        private final IntBuffer offsets;
+        private final IntBuffer order;
+        private final String[] decoded; // benign race: Strings are safely published
+
+        MappedNames(int n, ByteBuffer pool, IntBuffer offsets, IntBuffer order) {
+            this.pool = pool;
+            this.offsets = offsets;
+            this.order = order;
+            this.decoded = new String[n];
+        }
+
+        @Override
+        public String name(int node) {
+            String name = decoded[node];
+            if (name == null) {
+                int start = offsets.get(node);
+                byte[] bytes = new byte[offsets.get(node + 1) - start];
+                pool.get(start, bytes);
+                name = new String(bytes, StandardCharsets.UTF_8);
+                decoded[node] = name;
+            }
+            return name;
+        }
+
+        @Override
+        public int id(String name) {
+            byte[] key = name.getBytes(StandardCharsets.UTF_8);
+            int lo = 0;
+            int hi = order.capacity() - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int node = order.get(mid);
+                int cmp = compare(node, key);
+                if (cmp < 0) lo = mid + 1;
+                else if (cmp > 0) hi = mid - 1;
+                else return node;
+            }
+            return -1;
+        }
+
+        // Unsigned byte order of the node's name against key
+        private int compare(int node, byte[] key) {
+            int start = offsets.get(node);
+            int length = offsets.get(node + 1) - start;
+            int common = Math.min(length, key.length);
+            for (int i = 0; i < common; i++) {
+                int cmp = Byte.compareUnsigned(pool.get(start + i), key[i]);
+                if (cmp != 0) return cmp;
+            }
+            return Integer.compare(length, key.length);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+// IncrementalPaths.java
+import java.util.Arrays;
+
+// Repairs shortest-path results after a single edge tail -> head changes weight, instead
+// of recomputing them. Removing an edge is an increase to infinity, adding one a decrease
+// from infinity. Results are never modified in place: an affected tree or table is copied
+// and repaired, an unaffected one is returned as is, so readers holding the old one are safe.
+//  - increase: only nodes whose tree path used the edge (the subtree below head) can get
+//    longer. They are reset and re-settled from their unaffected in-neighbours.
+//  - decrease: only nodes the cheaper edge now improves change. A Dijkstra search from
+//    head settles exactly those.
+//  - all-pairs: the rows whose distance to head runs over the edge are recomputed by
+//    Dijkstra after an increase. After a decrease, each improved row is patched in O(n)
+//    through the new edge.
+final class IncrementalPaths {
+    private IncrementalPaths() {
+    }
+
+    // Work done by updates compared to recomputing everything from scratch
+    static final class Stats {
+        long updates;
+        long treesRepaired;
+        long treesUnaffected;
+        long nodesTouched;   // nodes reset or re-settled while repairing trees
+        long nodesInTrees;   // nodes a full recomputation of the same trees would settle
+        long rowsRecomputed; // all-pairs rows rebuilt with Dijkstra
+        long rowsPatched;    // all-pairs rows fixed in O(n) after a decrease
+        long rowsInTables;   // rows a full Floyd-Warshall run would rebuild
+
+        void add(Stats other) {
+            updates += other.updates;
+            treesRepaired += other.treesRepaired;
+            treesUnaffected += other.treesUnaffected;
+            nodesTouched += other.nodesTouched;
+            nodesInTrees += other.nodesInTrees;
+            rowsRecomputed += other.rowsRecomputed;
+            rowsPatched += other.rowsPatched;
+            rowsInTables += other.rowsInTables;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Updates: %d, trees repaired %d/%d (%d of %d nodes touched), "
+                            + "all-pairs rows recomputed %d + patched %d of %d",
+                    updates, treesRepaired, treesRepaired + treesUnaffected, nodesTouched, nodesInTrees,
+                    rowsRecomputed, rowsPatched, rowsInTables);
+        }
+    }
+
+    // Repairs a full tree over graph, the graph after the change, where the edge
+    // tail -> head of graph went from oldWeight to newWeight in the tree's metric
+    static ShortestPathTree repair(ShortestPathTree tree, CampusGraph graph, int tail, int head,
+                                   double oldWeight, double newWeight, CampusGraph.Metric metric,
+                                   Stats stats) {
+        int n = graph.size();
+        stats.nodesInTrees += n;
+        double[] oldDistances = tree.distances;
+
+        if (newWeight > oldWeight) {
+            if (tree.previous[head] != tail) {
+                stats.treesUnaffected++;
+                return tree;
+            }
+        } else if (!(oldDistances[tail] + newWeight < oldDistances[head])) {
+            stats.treesUnaffected++;
+            return tree;
+        }
+
+        double[] distances = oldDistances.clone();
+        int[] previous = tree.previous.clone();
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        boolean byTime = metric == CampusGraph.Metric.TIME;
+        int touched;
+
+        if (newWeight > oldWeight) {
+            int[] affected = subtree(previous, head);
+            boolean[] inSubtree = new boolean[n];
+            for (int node : affected) {
+                inSubtree[node] = true;
+            }
+            for (int node : affected) {
+                distances[node] = Double.POSITIVE_INFINITY;
+                previous[node] = -1;
+            }
+
+            // Best way into each reset node from the part of the tree that kept its distances
+            CampusGraph incoming = graph.reversed();
+            for (int node : affected) {
+                for (int e = incoming.edgeStart(node); e < incoming.edgeEnd(node); e++) {
+                    int from = incoming.target(e);
+                    if (inSubtree[from]) continue;
+                    double d = distances[from] + (byTime ? incoming.time(e) : incoming.distance(e));
+                    if (d < distances[node]) {
+                        distances[node] = d;
+                        previous[node] = from;
+                    }
+                }
+                if (distances[node] < Double.POSITIVE_INFINITY) heap.insert(node, distances[node]);
+            }
+            touched = affected.length;
+        } else {
+            distances[head] = oldDistances[tail] + newWeight;
+            previous[head] = tail;
+            heap.insert(head, distances[head]);
+            touched = 0;
+        }
+
+        // Distances only change inside the affected region, so this settles nothing else
+        while (!heap.isEmpty()) {
+            int current = heap.pollMin();
+            if (newWeight < oldWeight) touched++;
+            for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+                int neighbor = graph.target(e);
+                double d = distances[current] + (byTime ? graph.time(e) : graph.distance(e));
+                if (d < distances[neighbor]) {
+                    distances[neighbor] = d;
+                    previous[neighbor] = current;
+                    heap.insertOrDecrease(neighbor, d);
+                }
+            }
+        }
+
+        stats.treesRepaired++;
+        stats.nodesTouched += touched;
+        return new ShortestPathTree(graph, tree.source, distances, previous);
+    }
+
+    // Repairs a distance all-pairs table for the change of tail -> head in graph, the graph
+    // after the change
+    static AllPairsTable repair(AllPairsTable table, CampusGraph graph, int tail, int head,
+                                double oldWeight, double newWeight, Stats stats) {
+        int n = table.size();
+        stats.rowsInTables += n;
+
+        if (newWeight > oldWeight) {
+            // Rows whose shortest distance to head may run over the edge; the slack absorbs
+            // rounding, and a spurious row only costs one extra search
+            int[] rows = new int[n];
+            int count = 0;
+            for (int s = 0; s < n; s++) {
+                double viaEdge = table.distance(s, tail) + oldWeight;
+                double toHead = table.distance(s, head);
+                if (viaEdge < Double.POSITIVE_INFINITY && viaEdge <= toHead + 1e-9 * Math.max(1, toHead)) {
+                    rows[count++] = s;
+                }
+            }
+            if (count == 0) return table;
+
+            double[] dist = table.copyDistances();
+            int[] next = table.copyNextHops();
+            DijkstraEngine dijkstra = new DijkstraEngine(graph);
+            for (int i = 0; i < count; i++) {
+                int s = rows[i];
+                ShortestPathTree tree = dijkstra.search(s, CampusGraph.Metric.DISTANCE);
+                System.arraycopy(tree.distances, 0, dist, s * n, n);
+                firstHops(tree, next, s * n);
+            }
+            stats.rowsRecomputed += count;
+            return new AllPairsTable(n, dist, next);
+        }
+
+        // A cheaper edge improves row s exactly where going via tail -> head beats the
+        // old distance. Paths to tail and from head cannot use the edge (they would
+        // repeat a node), so column tail and row head are read before any change.
+        double[] toTail = new double[n];
+        int affected = 0;
+        for (int s = 0; s < n; s++) {
+            toTail[s] = table.distance(s, tail);
+            if (toTail[s] + newWeight < table.distance(s, head)) affected++;
+        }
+        if (affected == 0) return table;
+
+        double[] dist = table.copyDistances();
+        int[] next = table.copyNextHops();
+        double[] fromHead = Arrays.copyOfRange(dist, head * n, head * n + n);
+        for (int s = 0; s < n; s++) {
+            int row = s * n;
+            if (!(toTail[s] + newWeight < dist[row + head])) continue;
+            int firstHop = s == tail ? head : next[row + tail];
+            for (int t = 0; t < n; t++) {
+                double d = toTail[s] + newWeight + fromHead[t];
+                if (d < dist[row + t]) {
+                    dist[row + t] = d;
+                    next[row + t] = firstHop;
+                }
+            }
+        }
+        stats.rowsPatched += affected;
+        return new AllPairsTable(n, dist, next);
+    }
+
+    // Nodes of the tree below root (inclusive), from the predecessor array
+    private static int[] subtree(int[] previous, int root) {
+        int n = previous.length;
+        // Children lists in CSR form
+        int[] childStart = new int[n + 1];
+        for (int node = 0; node < n; node++) {
+            if (previous[node] >= 0) childStart[previous[node] + 1]++;
+        }
+        for (int node = 0; node < n; node++) {
+            childStart[node + 1] += childStart[node];
+        }
+        int[] children = new int[childStart[n]];
+        int[] fill = Arrays.copyOf(childStart, n);
+        for (int node = 0; node < n; node++) {
+            if (previous[node] >= 0) children[fill[previous[node]]++] = node;
+        }
+
+        int[] result = new int[n];
+        int size = 0;
+        result[size++] = root;
+        for (int i = 0; i < size; i++) {
+            int node = result[i];
+            for (int c = childStart[node]; c < childStart[node + 1]; c++) {
+                result[size++] = children[c];
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    // Fills next[offset + t] with the first node after the tree's source towards t
+    private static void firstHops(ShortestPathTree tree, int[] next, int offset) {
+        int n = tree.distances.length;
+        int source = tree.source;
+        Arrays.fill(next, offset, offset + n, -2); // -2: not resolved yet
+        next[offset + source] = source;
+
+        int[] chain = new int[n];
+        for (int t = 0; t < n; t++) {
+            if (next[offset + t] != -2) continue;
+            if (!tree.reaches(t)) {
+                next[offset + t] = -1;
+                continue;
+            }
+            // Walk up until a resolved node or a child of the source, then fill the chain
+            int length = 0;
+            int node = t;
+            int hop;
+            while (true) {
+                if (next[offset + node] != -2) {
+                    hop = next[offset + node];
+                    break;
+                }
+                chain[length++] = node;
+                if (tree.previous[node] == source) {
+                    hop = node;
+                    break;
+                }
+                node = tree.previous[node];
+            }
+            for (int i = 0; i < length; i++) {
+                next[offset + chain[i]] = hop;
+            }
+        }
+    }
+}
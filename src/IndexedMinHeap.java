@@ -0,0 +1,127 @@
+// IndexedMinHeap.java
+import java.util.Arrays;
+
+// Binary min-heap over int node ids with primitive double keys.
+// A position array maps each node to its heap slot, so contains() is O(1)
+// and decreaseKey() is O(log n) instead of a linear remove-and-reinsert.
+final class IndexedMinHeap {
+    private final int[] heap;      // heap slot -> node
+    private final int[] position;  // node -> heap slot, -1 when not queued
+    private final double[] keys;   // node -> current key
+    private int size;
+
+    // Operation counts for SearchStats; only maintained when stats are enabled
+    long pushes;
+    long decreases;
+    long pops;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int node) {
+        return position[node] >= 0;
+    }
+
+    public double key(int node) {
+        return keys[node];
+    }
+
+    public int peekMin() {
+        return heap[0];
+    }
+
+    public double minKey() {
+        return keys[heap[0]];
+    }
+
+    public void insert(int node, double key) {
+        if (SearchStats.ENABLED) pushes++;
+        keys[node] = key;
+        heap[size] = node;
+        position[node] = size;
+        siftUp(size++);
+    }
+
+    public void decreaseKey(int node, double key) {
+        if (SearchStats.ENABLED) decreases++;
+        keys[node] = key;
+        siftUp(position[node]);
+    }
+
+    // Inserts the node, or lowers its key if it is already queued
+    public void insertOrDecrease(int node, double key) {
+        if (position[node] >= 0) {
+            decreaseKey(node, key);
+        } else {
+            insert(node, key);
+        }
+    }
+
+    public int pollMin() {
+        if (SearchStats.ENABLED) pops++;
+        int min = heap[0];
+        position[min] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    // Empties the heap in O(size) so it can be reused for another search
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int slot) {
+        int node = heap[slot];
+        double key = keys[node];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            int parentNode = heap[parent];
+            if (keys[parentNode] <= key) break;
+            heap[slot] = parentNode;
+            position[parentNode] = slot;
+            slot = parent;
+        }
+        heap[slot] = node;
+        position[node] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int node = heap[slot];
+        double key = keys[node];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            int childNode = heap[child];
+            if (key <= keys[childNode]) break;
+            heap[slot] = childNode;
+            position[childNode] = slot;
+            slot = child;
+        }
+        heap[slot] = node;
+        position[node] = slot;
+    }
+}
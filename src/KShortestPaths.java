@@ -0,0 +1,196 @@
+// KShortestPaths.java
+import java.util.*;
+
+// Yen's algorithm for the k shortest loopless paths between two nodes.
+// Each new path deviates from an earlier one at some spur node: the prefix up to the spur
+// is kept, the edges that earlier paths with the same prefix took out of the spur are
+// banned, as are the prefix nodes, and the rest is found with an A* search. The heuristic
+// is the exact distance to the target from the shortest-path tree of the reversed graph;
+// bans only remove edges, so it stays consistent and the spur searches go almost straight
+// to the target. Memory is bounded: one set of O(n + m) scratch arrays per query, and at
+// most k - |found| candidate paths are kept at any time.
+final class KShortestPaths {
+    private final CampusGraph graph;
+    private final CampusGraph.Metric metric;
+    private final ShortestPathTree toTarget;
+
+    // Scratch state for the spur searches, reset through stamps rather than refills
+    private final double[] dist;
+    private final int[] previous;
+    private final int[] visitStamp;   // == stamp once dist/previous are valid for this search
+    private final int[] bannedNode;   // == stamp when the node may not be entered
+    private final int[] bannedEdge;   // == stamp when the edge may not be taken
+    private final boolean[] closed;
+    private final int[] touched;
+    private int touchedCount;
+    private final IndexedMinHeap open;
+    private int stamp;
+    private long settled; // by all spur searches, for SearchStats
+    private long relaxed;
+
+    private KShortestPaths(CampusGraph graph, CampusGraph.Metric metric, ShortestPathTree toTarget) {
+        int n = graph.size();
+        this.graph = graph;
+        this.metric = metric;
+        this.toTarget = toTarget;
+        this.dist = new double[n];
+        this.previous = new int[n];
+        this.visitStamp = new int[n];
+        this.bannedNode = new int[n];
+        this.bannedEdge = new int[graph.edgeCount()];
+        this.closed = new boolean[n];
+        this.touched = new int[n];
+        this.open = new IndexedMinHeap(n);
+    }
+
+    // Up to k paths from source to target in order of increasing cost. toTarget must be the
+    // shortest-path tree of graph.reversed() rooted at target, for the same metric.
+    public static List<SearchResult> find(CampusGraph graph, int source, int target, int k,
+                                          CampusGraph.Metric metric, ShortestPathTree toTarget) {
+        return new KShortestPaths(graph, metric, toTarget).find(source, target, k);
+    }
+
+    private List<SearchResult> find(int source, int target, int k) {
+        List<SearchResult> found = new ArrayList<>(k);
+        if (k <= 0 || !toTarget.reaches(source)) {
+            return found;
+        }
+        SearchStats.Probe probe = SearchStats.begin(SearchStats.Algorithm.K_SHORTEST_PATHS);
+
+        // The reverse tree already holds the shortest path, walked from source towards target
+        found.add(new SearchResult(treePath(source), toTarget.distanceTo(source), 0));
+
+        // Candidates ordered by cost, then by node sequence so equal paths collapse
+        TreeSet<SearchResult> candidates = new TreeSet<>((a, b) -> {
+            int byCost = Double.compare(a.cost, b.cost);
+            return byCost != 0 ? byCost : Arrays.compare(a.path, b.path);
+        });
+
+        while (found.size() < k) {
+            QueryCancellation.checkpoint();
+            int[] last = found.get(found.size() - 1).path;
+
+            for (int j = 0; j + 1 < last.length; j++) {
+                int spur = last[j];
+                stamp++;
+
+                // Ban the edges leaving the spur along every found path sharing this root
+                for (SearchResult path : found) {
+                    int[] nodes = path.path;
+                    if (nodes.length > j + 1 && Arrays.equals(nodes, 0, j + 1, last, 0, j + 1)) {
+                        bannedEdge[graph.findEdge(spur, nodes[j + 1])] = stamp;
+                    }
+                }
+                // The root itself may not be revisited, which keeps paths loopless
+                for (int i = 0; i < j; i++) {
+                    bannedNode[last[i]] = stamp;
+                }
+
+                SearchResult spurPath = spurSearch(spur, target);
+                if (spurPath != null) {
+                    int[] nodes = Arrays.copyOf(last, j + spurPath.path.length);
+                    System.arraycopy(spurPath.path, 0, nodes, j, spurPath.path.length);
+                    candidates.add(new SearchResult(nodes, cost(nodes), spurPath.nodesExpanded));
+
+                    // Only the cheapest k - |found| candidates can still be selected
+                    while (candidates.size() > k - found.size()) {
+                        candidates.pollLast();
+                    }
+                }
+            }
+
+            if (candidates.isEmpty()) break;
+            found.add(candidates.pollFirst());
+        }
+        if (probe != null) probe.end(settled, relaxed, open);
+        return found;
+    }
+
+    // Summed edge by edge in path order, so the same path always gets the same cost
+    // no matter which spur produced it
+    private double cost(int[] path) {
+        double total = 0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            total += graph.weight(graph.findEdge(path[i], path[i + 1]), metric);
+        }
+        return total;
+    }
+
+    private int[] treePath(int source) {
+        // previous[] in a reverse tree points one step closer to its root, the target
+        int length = 0;
+        for (int node = source; node != -1; node = toTarget.previous[node]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int i = 0;
+        for (int node = source; node != -1; node = toTarget.previous[node]) {
+            path[i++] = node;
+        }
+        return path;
+    }
+
+    // A* from spur to target avoiding banned nodes and edges; null when no path is left
+    private SearchResult spurSearch(int spur, int target) {
+        boolean byTime = metric == CampusGraph.Metric.TIME;
+        visit(spur, 0.0, -1);
+        open.insert(spur, toTarget.distances[spur]);
+
+        int expanded = 0;
+        long scanned = 0;
+        SearchResult result = null;
+        while (!open.isEmpty()) {
+            int current = open.pollMin();
+            closed[current] = true;
+            expanded++;
+
+            if (current == target) {
+                int length = 0;
+                for (int node = target; node != -1; node = previous[node]) {
+                    length++;
+                }
+                int[] path = new int[length];
+                for (int node = target; node != -1; node = previous[node]) {
+                    path[--length] = node;
+                }
+                result = new SearchResult(path, dist[target], expanded);
+                break;
+            }
+            scanned += graph.edgeEnd(current) - graph.edgeStart(current);
+
+            for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+                int neighbor = graph.target(e);
+                if (bannedEdge[e] == stamp || bannedNode[neighbor] == stamp) continue;
+                if (toTarget.distances[neighbor] == Double.POSITIVE_INFINITY) continue;
+                if (visitStamp[neighbor] == stamp && closed[neighbor]) continue;
+
+                double d = dist[current] + (byTime ? graph.time(e) : graph.distance(e));
+                if (visitStamp[neighbor] != stamp || d < dist[neighbor]) {
+                    visit(neighbor, d, current);
+                    open.insertOrDecrease(neighbor, d + toTarget.distances[neighbor]);
+                }
+            }
+        }
+
+        // Clear the closed flags set by this search and empty the heap for the next one
+        for (int i = 0; i < touchedCount; i++) {
+            closed[touched[i]] = false;
+        }
+        touchedCount = 0;
+        open.clear();
+        if (SearchStats.ENABLED) {
+            settled += expanded;
+            relaxed += scanned;
+        }
+        return result;
+    }
+
+    private void visit(int node, double distance, int from) {
+        if (visitStamp[node] != stamp) {
+            visitStamp[node] = stamp;
+            touched[touchedCount++] = node;
+        }
+        dist[node] = distance;
+        previous[node] = from;
+    }
+}
@@ -0,0 +1,178 @@
+// LandmarkIndex.java
+import java.util.*;
+
+// Prebuilt search index over location names and types for landmark queries.
+//  - name n-grams of 1 to 3 characters: a query of up to three characters is answered by
+//    a single posting list, a longer one by intersecting its trigram lists and checking the
+//    few survivors, so substring matches cost O(matches) instead of a scan over all names
+//  - type keywords: every LocationType name plus synonyms such as "food" -> DINING
+// Posting lists are ascending arrays of node ids. A sorted vocabulary of location names,
+// name words and keywords answers prefix autocomplete with one binary search.
+final class LandmarkIndex {
+    private static final int GRAM = 3;
+    private static final int[] NONE = new int[0];
+
+    private static final Map<String, LocationType> SYNONYMS = new HashMap<>();
+
+    static {
+        for (LocationType type : LocationType.values()) {
+            SYNONYMS.put(type.name().toLowerCase(), type);
+        }
+        synonyms(LocationType.DINING, "food", "eat", "cafeteria", "canteen", "restaurant", "market");
+        synonyms(LocationType.BANKING, "bank", "atm", "money");
+        synonyms(LocationType.MEDICAL, "hospital", "clinic", "health", "doctor");
+        synonyms(LocationType.RESIDENTIAL, "hall", "residence", "hostel", "dorm");
+        synonyms(LocationType.ACADEMIC, "school", "faculty", "department", "lecture");
+        synonyms(LocationType.RECREATION, "sports", "sport", "gym", "field");
+        synonyms(LocationType.ADMINISTRATIVE, "admin", "administration", "office");
+        synonyms(LocationType.SERVICE, "post", "services");
+        synonyms(LocationType.ENTRANCE, "gate", "exit", "entry");
+        synonyms(LocationType.RESEARCH, "institute", "lab", "laboratory");
+        synonyms(LocationType.EVENT, "events", "auditorium", "ceremony");
+    }
+
+    private static void synonyms(LocationType type, String... words) {
+        for (String word : words) {
+            SYNONYMS.put(word, type);
+        }
+    }
+
+    private final String[] names;            // lowercased, by node id
+    private final Map<String, int[]> grams;
+    private final Map<LocationType, int[]> byType;
+    private final String[] vocabularyKeys;   // sorted, lowercased
+    private final String[] vocabulary;       // display form of vocabularyKeys[i]
+
+    private LandmarkIndex(String[] names, Map<String, int[]> grams, Map<LocationType, int[]> byType,
+                          String[] vocabularyKeys, String[] vocabulary) {
+        this.names = names;
+        this.grams = grams;
+        this.byType = byType;
+        this.vocabularyKeys = vocabularyKeys;
+        this.vocabulary = vocabulary;
+    }
+
+    public static LandmarkIndex build(CampusGraph graph) {
+        int n = graph.size();
+        String[] names = new String[n];
+        Map<String, Postings> grams = new HashMap<>();
+        Map<LocationType, Postings> byType = new EnumMap<>(LocationType.class);
+        TreeMap<String, String> vocabulary = new TreeMap<>();
+
+        // Node ids are visited in increasing order, so every posting list comes out sorted
+        for (int node = 0; node < n; node++) {
+            String name = graph.name(node).toLowerCase();
+            names[node] = name;
+            for (int length = 1; length <= GRAM; length++) {
+                for (int i = 0; i + length <= name.length(); i++) {
+                    grams.computeIfAbsent(name.substring(i, i + length), g -> new Postings()).add(node);
+                }
+            }
+            byType.computeIfAbsent(graph.type(node), t -> new Postings()).add(node);
+
+            vocabulary.putIfAbsent(name, graph.name(node));
+            for (String word : name.split("[^a-z0-9]+")) {
+                if (word.length() > 1) vocabulary.putIfAbsent(word, word);
+            }
+        }
+        for (String keyword : SYNONYMS.keySet()) {
+            vocabulary.putIfAbsent(keyword, keyword);
+        }
+
+        Map<String, int[]> gramLists = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, postings) -> gramLists.put(gram, postings.toArray()));
+        Map<LocationType, int[]> typeLists = new EnumMap<>(LocationType.class);
+        byType.forEach((type, postings) -> typeLists.put(type, postings.toArray()));
+
+        return new LandmarkIndex(names, gramLists, typeLists,
+                vocabulary.keySet().toArray(new String[0]), vocabulary.values().toArray(new String[0]));
+    }
+
+    // Nodes whose name contains the query, plus every node of the type the query names
+    // ("food", "banks", "medical", ...), as ascending ids
+    public int[] find(String query) {
+        String q = query.trim().toLowerCase();
+        if (q.isEmpty()) return NONE;
+
+        LocationType type = typeOf(q);
+        int[] byName = containing(q);
+        return type == null ? byName : union(byName, byType.getOrDefault(type, NONE));
+    }
+
+    // The location type a keyword stands for, or null; a trailing plural "s" is ignored
+    public static LocationType typeOf(String keyword) {
+        String q = keyword.trim().toLowerCase();
+        LocationType type = SYNONYMS.get(q);
+        if (type == null && q.length() > 1 && q.endsWith("s")) {
+            type = SYNONYMS.get(q.substring(0, q.length() - 1));
+        }
+        return type;
+    }
+
+    // Location names, name words and type keywords starting with prefix, in sorted order
+    public List<String> complete(String prefix, int limit) {
+        String p = prefix.trim().toLowerCase();
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        if (p.isEmpty()) return result;
+
+        int i = Arrays.binarySearch(vocabularyKeys, p);
+        if (i < 0) i = -i - 1;
+        for (; i < vocabularyKeys.length && result.size() < limit && vocabularyKeys[i].startsWith(p); i++) {
+            result.add(vocabulary[i]);
+        }
+        return result;
+    }
+
+    private int[] containing(String q) {
+        if (q.length() <= GRAM) {
+            return grams.getOrDefault(q, NONE);
+        }
+
+        // Start from the rarest trigram; every match must appear in all of them
+        int[] candidates = null;
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            int[] postings = grams.get(q.substring(i, i + GRAM));
+            if (postings == null) return NONE;
+            if (candidates == null || postings.length < candidates.length) candidates = postings;
+        }
+
+        int count = 0;
+        int[] result = new int[candidates.length];
+        for (int node : candidates) {
+            if (names[node].contains(q)) result[count++] = node;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) result[k++] = a[i++];
+            else if (b[j] < a[i]) result[k++] = b[j++];
+            else {
+                result[k++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) result[k++] = a[i++];
+        while (j < b.length) result[k++] = b[j++];
+        return Arrays.copyOf(result, k);
+    }
+
+    // Growable posting list; repeated adds of the last node are ignored
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int node) {
+            if (size > 0 && ids[size - 1] == node) return;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = node;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
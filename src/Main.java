@@ -1,15 +1,103 @@
-//TIP To <b>Run</b> code, press <shortcut actionId="Run"/> or
-// click the <icon src="AllIcons.Actions.Execute"/> icon in the gutter.
+// Main.java
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+// Headless batch mode: routes every origin-destination pair in a file and streams the
+// results as CSV or JSON lines. The Swing application is UGNavigateApp.
+//
+//   java -cp ug-navigate.jar Main pairs.csv [output.csv|output.jsonl|-] [--metric distance|time] [--threads N] [--graph campus.graph]
 public class Main {
-    public static void main(String[] args) {
-        //TIP Press <shortcut actionId="ShowIntentionActions"/> with your caret at the highlighted text
-        // to see how IntelliJ IDEA suggests fixing it.
-        System.out.printf("Hello and welcome!");
+    public static void main(String[] args) throws IOException {
+        SearchStats.install();
+        if (args.length < 1) usage(null);
+
+        Path input = Paths.get(args[0]);
+        String output = "-";
+        CampusGraph.Metric metric = CampusGraph.Metric.DISTANCE;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path graphFile = null;
+
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--metric":
+                        metric = metric(value(args, ++i));
+                        break;
+                    case "--threads":
+                        threads = threads(value(args, ++i));
+                        break;
+                    case "--graph":
+                        graphFile = Paths.get(value(args, ++i));
+                        break;
+                    default:
+                        if (args[i].startsWith("--")) throw new IllegalArgumentException("Unknown option: " + args[i]);
+                        output = args[i];
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+        }
+
+        RouteCalculator calculator;
+        if (graphFile != null) {
+            GraphFile file = GraphFile.open(graphFile);
+            calculator = new RouteCalculator(file.graph, file.allPairs);
+        } else {
+            Map<String, Location> locations = CampusData.createLocations();
+            calculator = new RouteCalculator(locations, CampusData.createWalkways(locations));
+        }
+        BatchRouter router = new BatchRouter(calculator, metric, threads);
+        BatchRouter.Format format = output.endsWith(".jsonl") || output.endsWith(".json")
+                ? BatchRouter.Format.JSON_LINES
+                : BatchRouter.Format.CSV;
+
+        long start = System.nanoTime();
+        BatchRouter.Workload workload = router.readPairs(input);
+
+        long routed;
+        try (Writer writer = output.equals("-")
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+            routed = router.run(workload, writer, format);
+        }
 
-        for (int i = 1; i <= 5; i++) {
-            //TIP Press <shortcut actionId="Debug"/> to start debugging your code. We have set one <icon src="AllIcons.Debugger.Db_set_breakpoint"/> breakpoint
-            // for you, but you can always add more by pressing <shortcut actionId="ToggleLineBreakpoint"/>.
-            System.out.println("i = " + i);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Routed %d pairs on %d threads in %.3f s (%.0f pairs/sec)%n",
+                routed, threads, seconds, routed / seconds);
+        if (SearchStats.ENABLED) System.err.print(SearchStats.report());
+    }
+
+    // The value after an option, which must be there
+    private static String value(String[] args, int i) {
+        if (i >= args.length) throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        return args[i];
+    }
+
+    private static CampusGraph.Metric metric(String name) {
+        for (CampusGraph.Metric metric : CampusGraph.Metric.values()) {
+            if (metric.name().equalsIgnoreCase(name)) return metric;
         }
+        throw new IllegalArgumentException("Unknown metric: " + name);
+    }
+
+    private static int threads(String value) {
+        try {
+            int threads = Integer.parseInt(value);
+            if (threads >= 1) return threads;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("--threads expects a positive number, got: " + value);
+    }
+
+    private static void usage(String problem) {
+        if (problem != null) System.err.println(problem);
+        System.err.println("Usage: Main <pairs.csv> [output.csv|output.jsonl|-] [--metric distance|time] [--threads N] [--graph campus.graph]");
+        System.err.println("Each input line is 'from,to' using location names from the campus map.");
+        System.exit(2);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+// MapViewport.java
+
+// Projection between campus map units (the Location coordinates) and screen pixels of
+// the map panel: screen = map * zoom + offset. Offsets are whole pixels, so cached layers
+// drawn at the same zoom line up exactly when the view is panned.
+final class MapViewport {
+    public static final double MIN_ZOOM = 0.25;
+    public static final double MAX_ZOOM = 8.0;
+
+    private double zoom = 1.0;
+    private int offsetX;
+    private int offsetY;
+
+    public double zoom() {
+        return zoom;
+    }
+
+    public int offsetX() {
+        return offsetX;
+    }
+
+    public int offsetY() {
+        return offsetY;
+    }
+
+    public int screenX(double mapX) {
+        return (int) Math.round(mapX * zoom) + offsetX;
+    }
+
+    public int screenY(double mapY) {
+        return (int) Math.round(mapY * zoom) + offsetY;
+    }
+
+    public double mapX(int screenX) {
+        return (screenX - offsetX) / zoom;
+    }
+
+    public double mapY(int screenY) {
+        return (screenY - offsetY) / zoom;
+    }
+
+    // A screen distance in map units, for hit-testing
+    public double mapLength(double screenLength) {
+        return screenLength / zoom;
+    }
+
+    public void panBy(int dx, int dy) {
+        offsetX += dx;
+        offsetY += dy;
+    }
+
+    // Multiplies the zoom by factor, keeping the map point under (screenX, screenY) in place.
+    // Returns false when the zoom is already at its limit.
+    public boolean zoomAt(int screenX, int screenY, double factor) {
+        double next = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom * factor));
+        if (next == zoom) return false;
+
+        double mapX = mapX(screenX);
+        double mapY = mapY(screenY);
+        zoom = next;
+        offsetX = (int) Math.round(screenX - mapX * zoom);
+        offsetY = (int) Math.round(screenY - mapY * zoom);
+        return true;
+    }
+
+    public void reset() {
+        zoom = 1.0;
+        offsetX = 0;
+        offsetY = 0;
+    }
+}
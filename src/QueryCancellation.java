@@ -0,0 +1,16 @@
+// QueryCancellation.java
+import java.util.concurrent.CancellationException;
+
+// Cooperative cancellation for long-running searches. Search loops call checkpoint()
+// periodically; a query cancelled with SwingWorker.cancel(true) or Future.cancel(true)
+// then unwinds with a CancellationException instead of running to completion.
+final class QueryCancellation {
+    private QueryCancellation() {
+    }
+
+    public static void checkpoint() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Route query cancelled");
+        }
+    }
+}
@@ -0,0 +1,142 @@
+// ReferenceDistances.java
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Shortest distances to and from a few reference nodes, for ALT (A*, landmarks,
+// triangle inequality) lower bounds. For every reference r and target t,
+//   d(v, t) >= d(v, r) - d(t, r)   and   d(v, t) >= d(r, t) - d(r, v)
+// The largest of these is a consistent A* heuristic that, unlike the straight line,
+// accounts for fences and detours. Rows are node-major (the k values of one node are
+// adjacent), so evaluating a bound reads one short row per node.
+final class ReferenceDistances {
+    private final CampusGraph.Metric metric;
+    private final int[] references;
+    private final double[] to;   // [v * k + r] = d(v, references[r])
+    private final double[] from; // [v * k + r] = d(references[r], v)
+
+    private ReferenceDistances(CampusGraph.Metric metric, int[] references, double[] to, double[] from) {
+        this.metric = metric;
+        this.references = references;
+        this.to = to;
+        this.from = from;
+    }
+
+    // Picks up to count references, starting with seeds (ids of -1 are skipped), then
+    // repeatedly the node farthest in a straight line from those already chosen, which
+    // spreads the rest over the periphery. The 2k single-source searches run in parallel.
+    public static ReferenceDistances compute(CampusGraph graph, CampusGraph.Metric metric,
+                                             int count, int... seeds) {
+        int n = graph.size();
+        int[] references = selectReferences(graph, count, seeds);
+        int k = references.length;
+
+        double[] to = new double[n * k];
+        double[] from = new double[n * k];
+        DijkstraEngine forward = new DijkstraEngine(graph);
+        DijkstraEngine backward = new DijkstraEngine(graph.reversed());
+        IntStream.range(0, 2 * k).parallel().forEach(job -> {
+            int r = job / 2;
+            boolean reverse = job % 2 == 1;
+            ShortestPathTree tree = (reverse ? backward : forward).search(references[r], metric);
+            double[] table = reverse ? to : from;
+            for (int v = 0; v < n; v++) {
+                table[v * k + r] = tree.distances[v];
+            }
+        });
+
+        return new ReferenceDistances(metric, references, to, from);
+    }
+
+    private static int[] selectReferences(CampusGraph graph, int count, int[] seeds) {
+        int n = graph.size();
+        int[] chosen = new int[Math.min(count, n)];
+        int k = 0;
+        double[] nearest = new double[n]; // straight line to the closest chosen reference
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+
+        for (int seed : seeds) {
+            if (seed < 0 || k == chosen.length || nearest[seed] == 0) continue;
+            chosen[k++] = seed;
+            updateNearest(graph, nearest, seed);
+        }
+        if (k == 0 && chosen.length > 0) {
+            // No seeds: start from the node farthest from node 0, which lies on the periphery
+            updateNearest(graph, nearest, 0);
+            chosen[k] = farthest(nearest);
+            Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+            updateNearest(graph, nearest, chosen[k++]);
+        }
+        while (k < chosen.length) {
+            int next = farthest(nearest);
+            if (nearest[next] == 0) break; // every remaining node coincides with a reference
+            chosen[k++] = next;
+            updateNearest(graph, nearest, next);
+        }
+        return Arrays.copyOf(chosen, k);
+    }
+
+    private static void updateNearest(CampusGraph graph, double[] nearest, int reference) {
+        for (int v = 0; v < nearest.length; v++) {
+            nearest[v] = Math.min(nearest[v], graph.straightLine(v, reference));
+        }
+    }
+
+    private static int farthest(double[] nearest) {
+        int best = 0;
+        for (int v = 1; v < nearest.length; v++) {
+            if (nearest[v] > nearest[best]) best = v;
+        }
+        return best;
+    }
+
+    public CampusGraph.Metric metric() {
+        return metric;
+    }
+
+    public int[] references() {
+        return references.clone();
+    }
+
+    // Lower bound on d(node, target). Unreachable references give NaN or infinite terms:
+    // NaN never wins a comparison, and an infinite term only arises when the target
+    // really is unreachable from the node.
+    public AStarEngine.Heuristic toTarget(int target) {
+        int k = references.length;
+        double[] targetTo = Arrays.copyOfRange(to, target * k, target * k + k);
+        double[] targetFrom = Arrays.copyOfRange(from, target * k, target * k + k);
+        return node -> {
+            double bound = 0;
+            int row = node * k;
+            for (int r = 0; r < k; r++) {
+                double viaTo = to[row + r] - targetTo[r];
+                double viaFrom = targetFrom[r] - from[row + r];
+                if (viaTo > bound) bound = viaTo;
+                if (viaFrom > bound) bound = viaFrom;
+            }
+            return bound;
+        };
+    }
+
+    // Lower bound on d(source, node), for the backward half of a bidirectional search
+    public AStarEngine.Heuristic fromSource(int source) {
+        int k = references.length;
+        double[] sourceTo = Arrays.copyOfRange(to, source * k, source * k + k);
+        double[] sourceFrom = Arrays.copyOfRange(from, source * k, source * k + k);
+        return node -> {
+            double bound = 0;
+            int row = node * k;
+            for (int r = 0; r < k; r++) {
+                double viaTo = sourceTo[r] - to[row + r];
+                double viaFrom = from[row + r] - sourceFrom[r];
+                if (viaTo > bound) bound = viaTo;
+                if (viaFrom > bound) bound = viaFrom;
+            }
+            return bound;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ALT: %d reference nodes", references.length);
+    }
+}
@@ -0,0 +1,113 @@
+// RouteCache.java
+import java.util.*;
+
+// Size-bounded LRU cache of route query results keyed by (from, to, algorithm, sort mode).
+// Entries belong to the graph they were computed on; looking up against a different
+// graph (after the walkways or weights changed) drops every entry.
+class RouteCache {
+    private final int capacity;
+    private final LinkedHashMap<Key, List<Route>> entries;
+    private CampusGraph graph;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public RouteCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<Route>> eldest) {
+                if (size() > RouteCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Returns a copy of the cached routes, or null on a miss
+    public synchronized List<Route> get(Key key, CampusGraph currentGraph) {
+        validate(currentGraph);
+        List<Route> routes = entries.get(key);
+        if (routes == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return new ArrayList<>(routes);
+    }
+
+    public synchronized void put(Key key, CampusGraph currentGraph, List<Route> routes) {
+        validate(currentGraph);
+        entries.put(key, new ArrayList<>(routes));
+    }
+
+    public synchronized void invalidate() {
+        if (!entries.isEmpty()) {
+            invalidations++;
+            entries.clear();
+        }
+    }
+
+    private void validate(CampusGraph currentGraph) {
+        if (graph != currentGraph) {
+            invalidate();
+            graph = currentGraph;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Route cache: %d/%d entries, %d hits, %d misses (%.1f%% hit rate), %d evictions, %d invalidations",
+                entries.size(), capacity, hits, misses, getHitRate() * 100, evictions, invalidations);
+    }
+
+    // Cache key for one query as issued from the UI
+    static final class Key {
+        final String from;
+        final String to;
+        final String algorithm;
+        final String sortMode;
+
+        Key(String from, String to, String algorithm, String sortMode) {
+            this.from = from;
+            this.to = to;
+            this.algorithm = algorithm;
+            this.sortMode = sortMode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return from.equals(other.from) && to.equals(other.to)
+                    && algorithm.equals(other.algorithm) && sortMode.equals(other.sortMode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(from, to, algorithm, sortMode);
+        }
+    }
+}
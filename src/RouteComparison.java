@@ -0,0 +1,198 @@
+// RouteComparison.java
+import java.util.*;
+import java.util.concurrent.*;
+
+// Runs every routing algorithm on the same query at once and collects how each one did.
+// Graphs are never modified (updates swap in a new one), so the algorithms share them
+// without locking. Dynamic Programming, Greedy and CPM route on the graph as it was when
+// the comparison started; the others go through the calculator and read its current
+// graph, so a walkway update during a comparison can leave them on different versions,
+// which the result records (graphChanged). Each algorithm gets its own time budget,
+// counted from when the comparison starts: one still running when its budget runs out is
+// cancelled and reported as timed out, and the comparison returns with whatever finished.
+// A comparison therefore takes as long as its slowest algorithm (or largest budget),
+// not the sum of all of them, as long as the executor starts every algorithm right away.
+// The algorithms run on the executor given, e.g. a server's virtual threads; by default
+// on a private pool of daemon platform threads, one per running algorithm.
+final class RouteComparison {
+    static final String[] ALGORITHMS = {
+            "Dijkstra's Algorithm", "Floyd-Warshall", "A* Search", "Vogel Approximation",
+            "Northwest Corner", "Dynamic Programming", "Greedy", "Critical Path Method"
+    };
+
+    // Told about each algorithm as soon as it finishes or times out, on the thread that
+    // called compare
+    interface Listener {
+        void finished(RouteComparisonResult.Outcome outcome);
+    }
+
+    private final RouteCalculator calculator;
+    private final String[] algorithms;
+    private final long defaultBudgetNanos;
+    private final Map<String, Long> budgetNanos = new HashMap<>();
+    private final ExecutorService executor;
+
+    public RouteComparison(RouteCalculator calculator, long defaultBudgetMillis) {
+        // One thread per running algorithm, so no algorithm waits for another to start
+        this(calculator, defaultBudgetMillis, Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "route-comparison");
+            thread.setDaemon(true);
+            return thread;
+        }), ALGORITHMS);
+    }
+
+    // Compares only the given algorithms, a subset of ALGORITHMS, running them on executor.
+    // The executor stays the caller's to shut down.
+    public RouteComparison(RouteCalculator calculator, long defaultBudgetMillis, ExecutorService executor,
+                           String... algorithms) {
+        for (String algorithm : algorithms) {
+            if (!Arrays.asList(ALGORITHMS).contains(algorithm)) {
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+            }
+        }
+        this.calculator = calculator;
+        this.algorithms = algorithms.clone();
+        this.defaultBudgetNanos = TimeUnit.MILLISECONDS.toNanos(defaultBudgetMillis);
+        this.executor = executor;
+    }
+
+    // Overrides the budget of one algorithm, e.g. more time for a cold Floyd-Warshall table
+    public synchronized RouteComparison budget(String algorithm, long millis) {
+        budgetNanos.put(algorithm, TimeUnit.MILLISECONDS.toNanos(millis));
+        return this;
+    }
+
+    private synchronized long budgetOf(String algorithm) {
+        return budgetNanos.getOrDefault(algorithm, defaultBudgetNanos);
+    }
+
+    public RouteComparisonResult compare(String from, String to) throws InterruptedException {
+        return compare(from, to, outcome -> {
+        });
+    }
+
+    // Blocks until every algorithm has finished or run out of time. Interrupting the
+    // caller cancels the algorithms still running.
+    public RouteComparisonResult compare(String from, String to, Listener listener) throws InterruptedException {
+        CampusGraph graph = calculator.getGraph();
+        if (graph.id(from) < 0 || graph.id(to) < 0) {
+            throw new IllegalArgumentException("Unknown location: " + (graph.id(from) < 0 ? from : to));
+        }
+
+        int count = algorithms.length;
+        long start = System.nanoTime();
+        long[] deadlines = new long[count];
+        List<Future<RouteComparisonResult.Outcome>> futures = new ArrayList<>(count);
+        CompletionService<RouteComparisonResult.Outcome> completion = new ExecutorCompletionService<>(executor);
+        for (int i = 0; i < count; i++) {
+            String algorithm = algorithms[i];
+            deadlines[i] = start + budgetOf(algorithm);
+            futures.add(completion.submit(() -> run(algorithm, graph, from, to, start)));
+        }
+
+        RouteComparisonResult result = new RouteComparisonResult(from, to);
+        boolean[] reported = new boolean[count];
+        int pending = count;
+        try {
+            while (pending > 0) {
+                long nextDeadline = Long.MAX_VALUE;
+                for (int i = 0; i < count; i++) {
+                    if (!reported[i]) nextDeadline = Math.min(nextDeadline, deadlines[i]);
+                }
+
+                Future<RouteComparisonResult.Outcome> done =
+                        completion.poll(nextDeadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done != null) {
+                    int i = futures.indexOf(done);
+                    if (reported[i] || done.isCancelled()) continue; // timed out already
+                    reported[i] = true;
+                    pending--;
+                    RouteComparisonResult.Outcome outcome = get(done, algorithms[i], start);
+                    result.outcomes.add(outcome);
+                    listener.finished(outcome);
+                    continue;
+                }
+
+                long now = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    if (reported[i] || now < deadlines[i]) continue;
+                    futures.get(i).cancel(true);
+                    reported[i] = true;
+                    pending--;
+                    RouteComparisonResult.Outcome outcome = new RouteComparisonResult.Outcome(algorithms[i],
+                            RouteComparisonResult.Status.TIMED_OUT, new ArrayList<>(), now - start, null);
+                    result.outcomes.add(outcome);
+                    listener.finished(outcome);
+                }
+            }
+        } finally {
+            // Only left running if the caller was interrupted
+            for (Future<RouteComparisonResult.Outcome> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        result.elapsedNanos = System.nanoTime() - start;
+        result.graphChanged = calculator.getGraph() != graph;
+        return result;
+    }
+
+    private static RouteComparisonResult.Outcome get(Future<RouteComparisonResult.Outcome> future,
+                                                     String algorithm, long start) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+            return new RouteComparisonResult.Outcome(algorithm, RouteComparisonResult.Status.FAILED,
+                    new ArrayList<>(), System.nanoTime() - start, message);
+        }
+    }
+
+    private RouteComparisonResult.Outcome run(String algorithm, CampusGraph graph, String from, String to,
+                                              long start) {
+        List<Route> routes = routes(algorithm, graph, from, to);
+        return new RouteComparisonResult.Outcome(algorithm, RouteComparisonResult.Status.COMPLETED,
+                routes, System.nanoTime() - start, null);
+    }
+
+    private List<Route> routes(String algorithm, CampusGraph graph, String from, String to) {
+        switch (algorithm) {
+            case "Dijkstra's Algorithm":
+                return calculator.findRoutesDijkstra(from, to);
+            case "Floyd-Warshall":
+                return calculator.findRoutesFloydWarshall(from, to);
+            case "A* Search":
+                return calculator.findRoutesAStar(from, to);
+            case "Vogel Approximation":
+                return calculator.findRoutesVogel(from, to);
+            case "Northwest Corner":
+                return calculator.findRoutesNorthwestCorner(from, to);
+            case "Dynamic Programming":
+                return asList(RouteAnalyzer.DynamicProgrammingRouter.findOptimalRoute(from, to, graph));
+            case "Greedy":
+                return asList(PathfindingAlgorithms.GreedyRouter.findGreedyRoute(from, to, graph));
+            case "Critical Path Method":
+                return asList(criticalPathRoute(graph, from, to));
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    private static Route criticalPathRoute(CampusGraph graph, String from, String to) {
+        List<String> names = PathfindingAlgorithms.CriticalPathMethod.findCriticalPath(graph, from, to);
+        if (names.size() < 2) return null; // unreachable
+
+        CompactRoute.Builder path = CompactRoute.builder(graph);
+        for (String name : names) {
+            path.add(graph.id(name));
+        }
+        Route route = new Route(path.build());
+        route.algorithm = "Critical Path Method";
+        return route;
+    }
+
+    private static List<Route> asList(Route route) {
+        return route == null ? new ArrayList<>() : new ArrayList<>(Collections.singletonList(route));
+    }
+}
@@ -0,0 +1,108 @@
+// RouteComparisonResult.java
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// How each algorithm of one comparison did, in the order they finished
+final class RouteComparisonResult {
+    enum Status { COMPLETED, TIMED_OUT, FAILED }
+
+    static final class Outcome {
+        final String algorithm;
+        final Status status;
+        final List<Route> routes;   // empty unless completed (and the destination reachable)
+        final long elapsedNanos;    // from the start of the comparison
+        final String error;         // why it failed, for FAILED
+
+        Outcome(String algorithm, Status status, List<Route> routes, long elapsedNanos, String error) {
+            this.algorithm = algorithm;
+            this.status = status;
+            this.routes = routes;
+            this.elapsedNanos = elapsedNanos;
+            this.error = error;
+        }
+
+        @Override
+        public String toString() {
+            String time = String.format("%8.2f ms", elapsedNanos / 1e6);
+            switch (status) {
+                case TIMED_OUT:
+                    return String.format("%-22s %s  timed out", algorithm, time);
+                case FAILED:
+                    return String.format("%-22s %s  failed: %s", algorithm, time, error);
+                default:
+                    if (routes.isEmpty()) return String.format("%-22s %s  no route", algorithm, time);
+                    Route route = routes.get(0);
+                    return String.format("%-22s %s  %8.2f m %6.2f min %3d stops", algorithm, time,
+                            route.totalDistance, route.totalTime, route.path.size());
+            }
+        }
+    }
+
+    final String from;
+    final String to;
+    final List<Outcome> outcomes = new ArrayList<>();
+    long elapsedNanos;
+    boolean graphChanged; // walkways were updated while the algorithms ran
+
+    RouteComparisonResult(String from, String to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public Outcome outcome(String algorithm) {
+        for (Outcome outcome : outcomes) {
+            if (outcome.algorithm.equals(algorithm)) return outcome;
+        }
+        return null;
+    }
+
+    // True when no algorithm timed out or failed
+    public boolean isComplete() {
+        for (Outcome outcome : outcomes) {
+            if (outcome.status != Status.COMPLETED) return false;
+        }
+        return true;
+    }
+
+    // The best route of every algorithm that found one, shortest first
+    public List<Route> bestRoutes() {
+        List<Route> routes = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            if (!outcome.routes.isEmpty()) routes.add(outcome.routes.get(0));
+        }
+        routes.sort(Comparator.comparingDouble(r -> r.totalDistance));
+        return routes;
+    }
+
+    public String summary() {
+        int timedOut = 0;
+        int failed = 0;
+        for (Outcome outcome : outcomes) {
+            if (outcome.status == Status.TIMED_OUT) timedOut++;
+            if (outcome.status == Status.FAILED) failed++;
+        }
+        List<Route> best = bestRoutes();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d algorithms in %.2f ms", outcomes.size(), elapsedNanos / 1e6));
+        if (timedOut > 0) sb.append(String.format(", %d timed out", timedOut));
+        if (failed > 0) sb.append(String.format(", %d failed", failed));
+        if (!best.isEmpty()) {
+            sb.append(String.format("%nShortest: %.2f m (%s)", best.get(0).totalDistance, best.get(0).algorithm));
+        }
+        if (graphChanged) {
+            sb.append(String.format("%nWalkways changed during the comparison; some algorithms saw the update"));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%s -> %s%n", from, to));
+        for (Outcome outcome : outcomes) {
+            sb.append(outcome).append(String.format("%n"));
+        }
+        return sb.append(summary()).toString();
+    }
+}
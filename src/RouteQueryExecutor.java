@@ -0,0 +1,109 @@
+// RouteQueryExecutor.java
+import javax.swing.*;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+// Runs route queries off the Swing event dispatch thread. Submitting a new query
+// cancels the one still running, so only the latest click ever reaches the UI.
+// All methods must be called on the EDT; callbacks are delivered on the EDT.
+class RouteQueryExecutor {
+    // A query that hands partial results to the UI while it runs. Each published update
+    // runs on the EDT, in publishing order and before the final result is delivered,
+    // unless the query has been superseded or cancelled by then.
+    interface StreamingQuery {
+        List<Route> call(Consumer<Runnable> publish) throws Exception;
+    }
+
+    private final JProgressBar progressBar;
+    private QueryWorker current;
+
+    public RouteQueryExecutor(JProgressBar progressBar) {
+        this.progressBar = progressBar;
+        progressBar.setVisible(false);
+    }
+
+    public void submit(String description, Callable<List<Route>> query,
+                       Consumer<List<Route>> onResult, Consumer<Throwable> onError) {
+        submit(description, publish -> query.call(), onResult, onError);
+    }
+
+    public void submit(String description, StreamingQuery query,
+                       Consumer<List<Route>> onResult, Consumer<Throwable> onError) {
+        cancel();
+
+        QueryWorker worker = new QueryWorker(query, onResult, onError);
+        current = worker;
+        progressBar.setString(description);
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(true);
+        worker.execute();
+    }
+
+    // Interrupts the running query, if any; its result is discarded
+    public void cancel() {
+        if (current != null) {
+            current.cancel(true);
+            current = null;
+            progressBar.setVisible(false);
+        }
+    }
+
+    public boolean isRunning() {
+        return current != null;
+    }
+
+    private final class QueryWorker extends SwingWorker<List<Route>, Void> {
+        private final StreamingQuery query;
+        private final Consumer<List<Route>> onResult;
+        private final Consumer<Throwable> onError;
+        private final Queue<Runnable> updates = new ConcurrentLinkedQueue<>();
+
+        QueryWorker(StreamingQuery query, Consumer<List<Route>> onResult, Consumer<Throwable> onError) {
+            this.query = query;
+            this.onResult = onResult;
+            this.onError = onError;
+        }
+
+        @Override
+        protected List<Route> doInBackground() throws Exception {
+            return query.call(update -> {
+                updates.add(update);
+                SwingUtilities.invokeLater(this::deliverUpdates);
+            });
+        }
+
+        // Runs the updates published so far; SwingWorker.process is not used because it
+        // may run after done()
+        private void deliverUpdates() {
+            Runnable update;
+            while ((update = updates.poll()) != null) {
+                if (current == this) update.run();
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (current != this) return; // superseded or cancelled
+            deliverUpdates();
+            current = null;
+            progressBar.setVisible(false);
+
+            try {
+                onResult.accept(get());
+            } catch (CancellationException e) {
+                // cancelled after completion; nothing to publish
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof CancellationException)) {
+                    onError.accept(e.getCause());
+                }
+            }
+        }
+    }
+}
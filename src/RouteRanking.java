@@ -0,0 +1,168 @@
+// RouteRanking.java
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntToLongFunction;
+
+// Ranks routes by one criterion. Each route's key is read once into a double[] and every
+// comparison runs on that array; equal keys keep their input order. top() keeps only the
+// best k in a bounded heap, O(n log k), since the results panel lists just a few routes;
+// sort() orders everything, on the fork/join pool once a candidate set is large enough.
+final class RouteRanking {
+    static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+    enum Key {
+        DISTANCE,
+        TIME,
+        LANDMARKS; // most landmarks first
+
+        double of(Route route) {
+            switch (this) {
+                case DISTANCE: return route.totalDistance;
+                case TIME: return route.totalTime;
+                default: return -route.landmarks.size();
+            }
+        }
+    }
+
+    private RouteRanking() {
+    }
+
+    // The k best routes, best first, as a new list; routes itself is not reordered
+    static List<Route> top(List<Route> routes, Key key, int k) {
+        int n = routes.size();
+        if (k <= 0) return new ArrayList<>();
+        // A heap holding a sizeable share of a large set is slower than sorting all of it
+        if (k >= n || (n >= PARALLEL_SORT_THRESHOLD && k > n / 16)) {
+            List<Route> sorted = new ArrayList<>(routes);
+            sort(sorted, key);
+            return k >= n ? sorted : new ArrayList<>(sorted.subList(0, k));
+        }
+
+        Route[] array = routes.toArray(new Route[0]);
+        Best best = new Best(keys(array, key), k);
+        for (int i = 0; i < n; i++) {
+            best.offer(i);
+        }
+
+        List<Route> result = new ArrayList<>(k);
+        for (int i : best.sorted()) {
+            result.add(array[i]);
+        }
+        return result;
+    }
+
+    // Sorts routes in place, best first
+    static void sort(List<Route> routes, Key key) {
+        int n = routes.size();
+        if (n <= 1) return;
+        Route[] array = routes.toArray(new Route[0]);
+        int[] order = order(keys(array, key));
+        for (int i = 0; i < n; i++) {
+            routes.set(i, array[order[i]]);
+        }
+    }
+
+    private static double[] keys(Route[] routes, Key key) {
+        double[] keys = new double[routes.length];
+        for (int i = 0; i < routes.length; i++) {
+            keys[i] = key.of(routes[i]);
+        }
+        return keys;
+    }
+
+    // Indices in key order, ties by index: each key is replaced by its rank among the
+    // sorted keys and packed above its index, so one sort of a long[] orders both. Every
+    // step runs in parallel for large sets.
+    private static int[] order(double[] keys) {
+        int n = keys.length;
+        boolean parallel = n >= PARALLEL_SORT_THRESHOLD;
+        double[] sorted = keys.clone();
+        if (parallel) Arrays.parallelSort(sorted);
+        else Arrays.sort(sorted);
+
+        // Equal keys find the same slot, so they share a rank
+        IntToLongFunction pack = i -> ((long) Arrays.binarySearch(sorted, keys[i]) << 32) | i;
+        long[] packed = new long[n];
+        if (parallel) {
+            Arrays.parallelSetAll(packed, pack);
+            Arrays.parallelSort(packed);
+        } else {
+            Arrays.setAll(packed, pack);
+            Arrays.sort(packed);
+        }
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+
+    // Bounded max-heap of the best route indices seen so far; the root is the one the
+    // next better route evicts
+    private static final class Best {
+        final double[] keys;
+        final int[] heap;
+        int size;
+
+        Best(double[] keys, int capacity) {
+            this.keys = keys;
+            this.heap = new int[capacity];
+        }
+
+        // Indices arrive in increasing order, so an equal key never displaces the root
+        void offer(int i) {
+            if (size < heap.length) {
+                heap[size] = i;
+                siftUp(size++);
+            } else if (worse(heap[0], i)) {
+                heap[0] = i;
+                siftDown(0);
+            }
+        }
+
+        // Empties the heap, worst first, into an array ordered best first
+        int[] sorted() {
+            int[] result = new int[size];
+            while (size > 0) {
+                result[size - 1] = heap[0];
+                heap[0] = heap[--size];
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private boolean worse(int a, int b) {
+            return keys[a] > keys[b] || (keys[a] == keys[b] && a > b);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!worse(heap[i], heap[parent])) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && worse(heap[left], heap[largest])) largest = left;
+                if (right < size && worse(heap[right], heap[largest])) largest = right;
+                if (largest == i) return;
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int t = heap[i];
+            heap[i] = heap[j];
+            heap[j] = t;
+        }
+    }
+}
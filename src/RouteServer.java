@@ -0,0 +1,427 @@
+// RouteServer.java
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Embedded HTTP/JSON routing service on the JDK's built-in server. Every request runs on
+// its own virtual thread against one shared RouteCalculator, whose lazy precomputations
+// are all done up front so no request waits on (or pins a carrier thread in) their locks.
+// The cubic Floyd-Warshall table is the exception: above ALL_PAIRS_PRECOMPUTE_LIMIT
+// locations it is not built, and Floyd-Warshall is refused and left out of /compare,
+// unless the graph file came with the table.
+// /compare runs its algorithms on virtual threads too, so concurrent comparisons do not
+// each start platform threads.
+// Identical queries that arrive while one is still being answered are coalesced: they
+// wait for that answer instead of searching again.
+//
+//   GET /route?from=A&to=B[&algorithm=dijkstra|floyd-warshall|astar|alt|bidirectional|ch|vogel|northwest|time-dependent]
+//              [&metric=distance|time][&depart=HH:MM]
+//       metric=time works with dijkstra, astar, bidirectional and vogel; the others
+//       only route by distance (time-dependent only by time) and reject the other metric
+//   GET /landmark?from=A&to=B&landmark=library
+//   GET /compare?from=A&to=B
+//   GET /stats
+//
+//   java -cp ug-navigate.jar RouteServer [--port 8080] [--bind 127.0.0.1] [--graph campus.graph]
+public class RouteServer {
+    private static final int BACKLOG = 4096; // pending connections, for bursts of clients
+    // Floyd-Warshall is cubic: larger graphs do without it
+    private static final int ALL_PAIRS_PRECOMPUTE_LIMIT = 1000;
+
+    private final RouteCalculator calculator;
+    private final RouteComparison comparison;
+    private final boolean allPairs; // Floyd-Warshall table available
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, CompletableFuture<Response>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    // A finished answer, shared by every request coalesced onto it
+    private static final class Response {
+        final int status;
+        final byte[] body;
+
+        Response(int status, String json) {
+            this.status = status;
+            this.body = json.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    public RouteServer(RouteCalculator calculator, InetSocketAddress address) throws IOException {
+        this.calculator = calculator;
+        this.allPairs = calculator.hasAllPairsTable() || calculator.getGraph().size() <= ALL_PAIRS_PRECOMPUTE_LIMIT;
+        if (allPairs) calculator.getAllPairsTable();
+        // Comparisons run their algorithms on the request threads' executor, so concurrent
+        // /compare requests add virtual threads rather than platform threads
+        this.comparison = new RouteComparison(calculator, UGNavigateApp.COMPARISON_BUDGET_MS, executor,
+                Arrays.stream(RouteComparison.ALGORITHMS)
+                        .filter(algorithm -> allPairs || !algorithm.equals("Floyd-Warshall"))
+                        .toArray(String[]::new));
+        calculator.getContractionHierarchy();
+        calculator.getReferenceDistances();
+        calculator.getLandmarkIndex();
+        calculator.getSpatialIndex();
+        calculator.getTravelTimeProfiles();
+
+        server = HttpServer.create(address, BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/route", exchange -> handle(exchange, true, this::route));
+        server.createContext("/landmark", exchange -> handle(exchange, true, this::landmark));
+        server.createContext("/compare", exchange -> handle(exchange, true, this::compare));
+        server.createContext("/stats", exchange -> handle(exchange, false, params -> stats()));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private interface Query {
+        Response answer(Map<String, String> params) throws Exception;
+    }
+
+    private void handle(HttpExchange exchange, boolean coalesce, Query query) throws IOException {
+        requests.increment();
+        Response response;
+        if (!exchange.getRequestMethod().equals("GET")) {
+            exchange.getResponseHeaders().set("Allow", "GET");
+            response = error(405, "Only GET is supported");
+        } else {
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            response = coalesce ? coalesced(path + params, () -> answer(query, params)) : answer(query, params);
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, response.body.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(response.body);
+        }
+    }
+
+    private static Response answer(Query query, Map<String, String> params) {
+        try {
+            return query.answer(params);
+        } catch (IllegalArgumentException e) {
+            return error(400, e.getMessage());
+        } catch (Exception e) {
+            return error(500, e.toString());
+        }
+    }
+
+    // Runs the query unless the same one is already running, in which case its answer is
+    // shared. Finished answers are not kept: a later identical request searches again.
+    private Response coalesced(String key, Supplier<Response> query) {
+        CompletableFuture<Response> mine = new CompletableFuture<>();
+        CompletableFuture<Response> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                return error(500, e.getCause().toString());
+            }
+        }
+        try {
+            mine.complete(query.get());
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+        return mine.join();
+    }
+
+    private Response route(Map<String, String> params) {
+        String from = location(params, "from");
+        String to = location(params, "to");
+        String algorithm = params.getOrDefault("algorithm", "dijkstra");
+        String metricName = params.get("metric");
+        CampusGraph.Metric metric = metricName == null ? null : metric(metricName);
+
+        List<Route> routes;
+        switch (algorithm) {
+            case "dijkstra":
+                routes = calculator.findRoutesDijkstra(from, to, orDistance(metric));
+                break;
+            case "floyd-warshall":
+                requireMetric(algorithm, metric, CampusGraph.Metric.DISTANCE);
+                if (!allPairs) {
+                    throw new IllegalArgumentException("floyd-warshall is not available on graphs of more than "
+                            + ALL_PAIRS_PRECOMPUTE_LIMIT + " locations");
+                }
+                routes = calculator.findRoutesFloydWarshall(from, to);
+                break;
+            case "astar":
+                routes = calculator.findRoutesAStar(from, to, orDistance(metric));
+                break;
+            case "alt":
+                requireMetric(algorithm, metric, CampusGraph.Metric.DISTANCE);
+                routes = calculator.findRoutesALT(from, to);
+                break;
+            case "bidirectional":
+                routes = calculator.findRoutesBidirectionalAStar(from, to, orDistance(metric));
+                break;
+            case "ch":
+                requireMetric(algorithm, metric, CampusGraph.Metric.DISTANCE);
+                routes = calculator.findRoutesContractionHierarchy(from, to);
+                break;
+            case "vogel":
+                routes = calculator.findRoutesVogel(from, to, orDistance(metric));
+                break;
+            case "northwest":
+                requireMetric(algorithm, metric, CampusGraph.Metric.DISTANCE);
+                routes = calculator.findRoutesNorthwestCorner(from, to);
+                break;
+            case "time-dependent":
+                requireMetric(algorithm, metric, CampusGraph.Metric.TIME);
+                routes = calculator.findRoutesTimeDependent(from, to, departure(params.get("depart")));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"from\":").append(BatchRouter.json(from))
+                .append(",\"to\":").append(BatchRouter.json(to))
+                .append(",\"algorithm\":").append(BatchRouter.json(algorithm))
+                .append(",\"routes\":");
+        appendRoutes(sb, routes);
+        return new Response(200, sb.append('}').toString());
+    }
+
+    // Routes through a matching landmark, or past one when none can be stopped at, as in the app
+    private Response landmark(Map<String, String> params) {
+        String from = location(params, "from");
+        String to = location(params, "to");
+        String landmark = required(params, "landmark").trim().toLowerCase(Locale.ROOT);
+
+        List<Route> routes = calculator.findRoutesThroughLandmark(from, to, landmark);
+        if (routes.isEmpty()) {
+            routes = calculator.findRoutesNearLandmark(from, to, landmark, UGNavigateApp.LANDMARK_RADIUS);
+        }
+        routes = new ArrayList<>(routes);
+        routes.sort(Comparator.comparingDouble(r -> r.totalDistance));
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"from\":").append(BatchRouter.json(from))
+                .append(",\"to\":").append(BatchRouter.json(to))
+                .append(",\"landmark\":").append(BatchRouter.json(landmark))
+                .append(",\"routes\":");
+        appendRoutes(sb, routes);
+        return new Response(200, sb.append('}').toString());
+    }
+
+    private Response compare(Map<String, String> params) throws InterruptedException {
+        String from = location(params, "from");
+        String to = location(params, "to");
+        RouteComparisonResult result = comparison.compare(from, to);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"from\":").append(BatchRouter.json(from))
+                .append(",\"to\":").append(BatchRouter.json(to))
+                .append(",\"complete\":").append(result.isComplete())
+                .append(String.format(Locale.ROOT, ",\"elapsedMs\":%.3f", result.elapsedNanos / 1e6))
+                .append(",\"algorithms\":[");
+        for (int i = 0; i < result.outcomes.size(); i++) {
+            RouteComparisonResult.Outcome outcome = result.outcomes.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"algorithm\":").append(BatchRouter.json(outcome.algorithm))
+                    .append(",\"status\":").append(BatchRouter.json(outcome.status.name()))
+                    .append(String.format(Locale.ROOT, ",\"elapsedMs\":%.3f", outcome.elapsedNanos / 1e6));
+            if (outcome.error != null) sb.append(",\"error\":").append(BatchRouter.json(outcome.error));
+            sb.append(",\"routes\":");
+            appendRoutes(sb, outcome.routes);
+            sb.append('}');
+        }
+        return new Response(200, sb.append("]}").toString());
+    }
+
+    private Response stats() {
+        return new Response(200, String.format("{\"requests\":%d,\"coalesced\":%d,\"inFlight\":%d}",
+                requests.sum(), coalesced.sum(), inFlight.size()));
+    }
+
+    private static void appendRoutes(StringBuilder sb, List<Route> routes) {
+        sb.append('[');
+        for (int i = 0; i < routes.size(); i++) {
+            Route route = routes.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"algorithm\":").append(BatchRouter.json(route.algorithm))
+                    .append(String.format(Locale.ROOT, ",\"distance\":%.2f,\"time\":%.2f", route.totalDistance,
+                            route.totalTime));
+            if (route.nodesExpanded > 0) sb.append(",\"nodesExpanded\":").append(route.nodesExpanded);
+            appendNames(sb.append(",\"landmarks\":"), route.landmarks);
+            appendNames(sb.append(",\"path\":"), route.path);
+            sb.append('}');
+        }
+        sb.append(']');
+    }
+
+    private static void appendNames(StringBuilder sb, List<String> names) {
+        sb.append('[');
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(BatchRouter.json(names.get(i)));
+        }
+        sb.append(']');
+    }
+
+    private static Response error(int status, String message) {
+        return new Response(status, "{\"error\":" + BatchRouter.json(String.valueOf(message)) + "}");
+    }
+
+    // Sorted, so the same query always gets the same coalescing key
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new TreeMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) throw new IllegalArgumentException("Missing parameter: " + name);
+        return value;
+    }
+
+    private String location(Map<String, String> params, String name) {
+        String value = required(params, name);
+        if (calculator.getGraph().id(value) < 0) throw new IllegalArgumentException("Unknown location: " + value);
+        return value;
+    }
+
+    private static CampusGraph.Metric metric(String name) {
+        for (CampusGraph.Metric metric : CampusGraph.Metric.values()) {
+            if (metric.name().equalsIgnoreCase(name)) return metric;
+        }
+        throw new IllegalArgumentException("Expected metric=distance or metric=time but got: " + name);
+    }
+
+    private static CampusGraph.Metric orDistance(CampusGraph.Metric metric) {
+        return metric == null ? CampusGraph.Metric.DISTANCE : metric;
+    }
+
+    // For algorithms tied to one metric: an explicit request for the other one is an error
+    private static void requireMetric(String algorithm, CampusGraph.Metric requested, CampusGraph.Metric supported) {
+        if (requested != null && requested != supported) {
+            throw new IllegalArgumentException(algorithm + " only routes by "
+                    + supported.name().toLowerCase(Locale.ROOT) + ", not metric=" + requested.name().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    // Minute of day from "HH:MM"; now when absent
+    private static double departure(String value) {
+        if (value == null) {
+            java.time.LocalTime now = java.time.LocalTime.now();
+            return now.getHour() * 60 + now.getMinute();
+        }
+        String[] parts = value.split(":");
+        try {
+            int hour = Integer.parseInt(parts[0]);
+            int minute = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            if (parts.length > 2 || hour < 0 || hour > 23 || minute < 0 || minute > 59) throw new NumberFormatException();
+            return hour * 60 + minute;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected depart=HH:MM but got: " + value);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        String bind = "127.0.0.1";
+        String graphFile = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--port":
+                        port = port(value(args, ++i));
+                        break;
+                    case "--bind":
+                        bind = value(args, ++i);
+                        break;
+                    case "--graph":
+                        graphFile = value(args, ++i);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+        }
+
+        SearchStats.install();
+        RouteCalculator calculator;
+        if (graphFile != null) {
+            GraphFile file = GraphFile.open(Paths.get(graphFile));
+            calculator = new RouteCalculator(file.graph, file.allPairs);
+        } else {
+            Map<String, Location> locations = CampusData.createLocations();
+            calculator = new RouteCalculator(locations, CampusData.createWalkways(locations));
+        }
+
+        RouteServer server = new RouteServer(calculator, new InetSocketAddress(bind, port));
+        server.start();
+        System.err.printf("Routing service listening on http://%s:%d/%n", bind, server.port());
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        return args[i];
+    }
+
+    private static int port(String value) {
+        try {
+            int port = Integer.parseInt(value);
+            if (port >= 0 && port <= 65535) return port;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("--port expects a number from 0 to 65535, got: " + value);
+    }
+
+    private static void usage(String problem) {
+        if (problem != null) System.err.println(problem);
+        System.err.println("Usage: RouteServer [--port 8080] [--bind 127.0.0.1] [--graph campus.graph]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,19 @@
+// SearchResult.java
+
+// Outcome of a point-to-point search: the node id path (null when unreachable), its cost
+// in the searched metric, and how many nodes the search settled to find it.
+final class SearchResult {
+    final int[] path;
+    final double cost;
+    final int nodesExpanded;
+
+    SearchResult(int[] path, double cost, int nodesExpanded) {
+        this.path = path;
+        this.cost = cost;
+        this.nodesExpanded = nodesExpanded;
+    }
+
+    public boolean found() {
+        return path != null;
+    }
+}
@@ -0,0 +1,314 @@
+// SearchStats.java
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-algorithm search counters and latency histograms. Off unless the JVM runs with
+// -Dugnavigate.stats=true. ENABLED is a static final, so with stats off the JIT folds
+// every "if (SearchStats.ENABLED)" to false and drops the guarded code; begin() then
+// returns null and the search loops' local counters feed nothing and are removed too.
+//
+// A search calls begin() before its loop and Probe.end() once it is done. Counters are
+// summed with LongAdders and latencies go into a log-linear histogram (8 buckets per
+// power of two, so percentiles are within 12.5%), both safe for concurrent searches.
+// With stats on, each algorithm is an MXBean (ugnavigate:type=SearchStats,algorithm=...)
+// and -Dugnavigate.stats.dumpSeconds=N prints the report to stderr every N seconds.
+final class SearchStats {
+    static final boolean ENABLED = Boolean.getBoolean("ugnavigate.stats");
+    private static final int DUMP_SECONDS = Integer.getInteger("ugnavigate.stats.dumpSeconds", 0);
+
+    enum Algorithm {
+        DIJKSTRA("Dijkstra"),
+        ASTAR("A*"),
+        BIDIRECTIONAL_ASTAR("Bidirectional A*"),
+        CONTRACTION_HIERARCHY("Contraction Hierarchy"),
+        TIME_DEPENDENT("Time-Dependent A*"),
+        K_SHORTEST_PATHS("K Shortest Paths"),
+        FLOYD_WARSHALL("Floyd-Warshall"),
+        DYNAMIC_PROGRAMMING("Dynamic Programming");
+
+        final String label;
+        final Totals totals = new Totals(this);
+
+        Algorithm(String label) {
+            this.label = label;
+        }
+    }
+
+    // Allocation counter of the current thread, where the JVM provides one
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    // Settled nodes and relaxed edges of all searches finished on the current thread
+    private static final ThreadLocal<long[]> THREAD_TOTALS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private static boolean installed;
+
+    private SearchStats() {
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled() ? bean : null;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    // Starts measuring one search; null when stats are off
+    static Probe begin(Algorithm algorithm) {
+        return ENABLED ? new Probe(algorithm) : null;
+    }
+
+    static final class Probe {
+        private final Algorithm algorithm;
+        private final long startNanos;
+        private final long startBytes;
+
+        private Probe(Algorithm algorithm) {
+            this.algorithm = algorithm;
+            this.startBytes = allocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        // Records the finished search. heaps are the queues it used, for their push/pop counts.
+        void end(long settled, long relaxed, IndexedMinHeap... heaps) {
+            long nanos = System.nanoTime() - startNanos;
+            long pushes = 0;
+            long decreases = 0;
+            long pops = 0;
+            for (IndexedMinHeap heap : heaps) {
+                pushes += heap.pushes;
+                decreases += heap.decreases;
+                pops += heap.pops;
+            }
+            algorithm.totals.add(nanos, settled, relaxed, pushes, decreases, pops, allocatedBytes() - startBytes);
+
+            long[] thread = THREAD_TOTALS.get();
+            thread[0] += settled;
+            thread[1] += relaxed;
+        }
+    }
+
+    // Nodes settled by instrumented searches on this thread so far; 0 when stats are off
+    static long settledOnThisThread() {
+        return ENABLED ? THREAD_TOTALS.get()[0] : 0;
+    }
+
+    static final class Totals implements SearchStatsMXBean {
+        private static final int SUB_BUCKETS = 8; // per power of two
+        private static final int BUCKETS = 61 * SUB_BUCKETS;
+
+        private final Algorithm algorithm;
+        private final LongAdder searches = new LongAdder();
+        private final LongAdder settled = new LongAdder();
+        private final LongAdder relaxed = new LongAdder();
+        private final LongAdder pushes = new LongAdder();
+        private final LongAdder decreases = new LongAdder();
+        private final LongAdder pops = new LongAdder();
+        private final LongAdder allocated = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        private Totals(Algorithm algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        private void add(long nanos, long settledNodes, long relaxedEdges, long heapPushes, long heapDecreases,
+                         long heapPops, long bytes) {
+            searches.increment();
+            settled.add(settledNodes);
+            relaxed.add(relaxedEdges);
+            pushes.add(heapPushes);
+            decreases.add(heapDecreases);
+            pops.add(heapPops);
+            allocated.add(bytes);
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            histogram.incrementAndGet(bucket(nanos));
+        }
+
+        // Values below 8 get a bucket each; above, each power of two is split in 8
+        private static int bucket(long nanos) {
+            if (nanos < SUB_BUCKETS) return (int) Math.max(0, nanos);
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            int sub = (int) (nanos >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+            return (exponent - 2) * SUB_BUCKETS + sub;
+        }
+
+        // Largest value that falls into bucket b
+        private static long bucketMax(int b) {
+            if (b < SUB_BUCKETS) return b;
+            int exponent = b / SUB_BUCKETS + 2;
+            long lower = (long) (SUB_BUCKETS + b % SUB_BUCKETS) << (exponent - 3);
+            return lower + (1L << (exponent - 3)) - 1;
+        }
+
+        // Latency at quantile q (0..1) in nanoseconds, as the upper edge of its bucket
+        long percentileNanos(double q) {
+            long count = 0;
+            long[] counts = new long[BUCKETS];
+            for (int b = 0; b < BUCKETS; b++) {
+                counts[b] = histogram.get(b);
+                count += counts[b];
+            }
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += counts[b];
+                if (seen >= rank) return Math.min(bucketMax(b), maxNanos.get());
+            }
+            return maxNanos.get();
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return algorithm.label;
+        }
+
+        @Override
+        public long getSearches() {
+            return searches.sum();
+        }
+
+        @Override
+        public long getSettledNodes() {
+            return settled.sum();
+        }
+
+        @Override
+        public long getRelaxedEdges() {
+            return relaxed.sum();
+        }
+
+        @Override
+        public long getHeapPushes() {
+            return pushes.sum();
+        }
+
+        @Override
+        public long getHeapDecreases() {
+            return decreases.sum();
+        }
+
+        @Override
+        public long getHeapPops() {
+            return pops.sum();
+        }
+
+        @Override
+        public long getAllocatedBytes() {
+            return allocated.sum();
+        }
+
+        @Override
+        public double getMeanMicros() {
+            long n = searches.sum();
+            return n == 0 ? 0 : totalNanos.sum() / 1e3 / n;
+        }
+
+        @Override
+        public double getP50Micros() {
+            return percentileNanos(0.50) / 1e3;
+        }
+
+        @Override
+        public double getP90Micros() {
+            return percentileNanos(0.90) / 1e3;
+        }
+
+        @Override
+        public double getP99Micros() {
+            return percentileNanos(0.99) / 1e3;
+        }
+
+        @Override
+        public double getMaxMicros() {
+            return maxNanos.get() / 1e3;
+        }
+
+        @Override
+        public void reset() {
+            searches.reset();
+            settled.reset();
+            relaxed.reset();
+            pushes.reset();
+            decreases.reset();
+            pops.reset();
+            allocated.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            for (int b = 0; b < BUCKETS; b++) {
+                histogram.set(b, 0);
+            }
+        }
+
+        @Override
+        public String toString() {
+            long n = getSearches();
+            return String.format("%-22s %8d %10.1f %10.1f %10.1f %10.1f %10.1f %9.0f %9.0f %9.0f %9.0f %10.0f",
+                    algorithm.label, n, getMeanMicros(), getP50Micros(), getP90Micros(), getP99Micros(),
+                    getMaxMicros(), (double) getSettledNodes() / n, (double) getRelaxedEdges() / n,
+                    (double) (getHeapPushes() + getHeapDecreases()) / n, (double) getHeapPops() / n,
+                    (double) getAllocatedBytes() / n);
+        }
+    }
+
+    // One line per algorithm that has run; latencies in microseconds, counts per search
+    static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-22s %8s %10s %10s %10s %10s %10s %9s %9s %9s %9s %10s%n",
+                "Algorithm", "searches", "mean us", "p50 us", "p90 us", "p99 us", "max us",
+                "settled", "relaxed", "pushes", "pops", "bytes"));
+        for (Algorithm algorithm : Algorithm.values()) {
+            if (algorithm.totals.getSearches() > 0) sb.append(algorithm.totals).append(String.format("%n"));
+        }
+        return sb.toString();
+    }
+
+    static void reset() {
+        for (Algorithm algorithm : Algorithm.values()) {
+            algorithm.totals.reset();
+        }
+    }
+
+    // Registers the MXBeans and starts the periodic dump, if stats are on. Safe to call
+    // more than once.
+    static synchronized void install() {
+        if (!ENABLED || installed) return;
+        installed = true;
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (Algorithm algorithm : Algorithm.values()) {
+            try {
+                server.registerMBean(algorithm.totals,
+                        new ObjectName("ugnavigate:type=SearchStats,algorithm=" + algorithm.name()));
+            } catch (JMException e) {
+                System.err.println("Search stats not exported over JMX: " + e.getMessage());
+                break;
+            }
+        }
+        if (DUMP_SECONDS > 0) startDump(DUMP_SECONDS, System.err);
+    }
+
+    static ScheduledExecutorService startDump(long periodSeconds, PrintStream out) {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-stats-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(() -> out.print(report()), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        return timer;
+    }
+}
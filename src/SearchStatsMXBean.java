@@ -0,0 +1,33 @@
+// SearchStatsMXBean.java
+
+// JMX view of one algorithm's search statistics (see SearchStats). Counts are totals
+// since start or the last reset; latencies are in microseconds.
+public interface SearchStatsMXBean {
+    String getAlgorithm();
+
+    long getSearches();
+
+    long getSettledNodes();
+
+    long getRelaxedEdges();
+
+    long getHeapPushes();
+
+    long getHeapDecreases();
+
+    long getHeapPops();
+
+    long getAllocatedBytes();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
@@ -0,0 +1,43 @@
+// ShortestPathTree.java
+
+// Result of a single-source search: distance and predecessor arrays indexed by node id.
+// When the search stopped early at a target, only that target and the nodes settled
+// before it carry final distances. The tree holds the graph it was searched on, since
+// its paths are only walkable there once the walkways change.
+final class ShortestPathTree {
+    final CampusGraph graph; // reversed for a tree of distances to the source
+    final int source;
+    final double[] distances;
+    final int[] previous;
+
+    ShortestPathTree(CampusGraph graph, int source, double[] distances, int[] previous) {
+        this.graph = graph;
+        this.source = source;
+        this.distances = distances;
+        this.previous = previous;
+    }
+
+    public boolean reaches(int target) {
+        return distances[target] != Double.POSITIVE_INFINITY;
+    }
+
+    public double distanceTo(int target) {
+        return distances[target];
+    }
+
+    // Node ids from the source to target, or null if target is unreachable
+    public int[] pathTo(int target) {
+        if (!reaches(target)) return null;
+
+        int length = 0;
+        for (int node = target; node != -1; node = previous[node]) {
+            length++;
+        }
+
+        int[] path = new int[length];
+        for (int node = target; node != -1; node = previous[node]) {
+            path[--length] = node;
+        }
+        return path;
+    }
+}
@@ -0,0 +1,241 @@
+// SpatialIndex.java
+import java.util.Arrays;
+
+// Static 2-d tree over the node coordinates of a CampusGraph, stored implicitly in arrays:
+// the subtree for a range [lo, hi) of tree positions has its splitting node at the middle,
+// smaller coordinates on the left and larger ones on the right, splitting on x at even
+// depths and on y at odd depths. Nearest-neighbour, radius and box queries only descend
+// into subtrees that can still hold an answer, so they cost O(log n + results) on
+// spread-out campuses instead of a scan over every location.
+final class SpatialIndex {
+    private final int[] nodes; // node ids in tree order
+    private final int[] xs;    // coordinates in tree order
+    private final int[] ys;
+
+    private SpatialIndex(int[] nodes, int[] xs, int[] ys) {
+        this.nodes = nodes;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    public static SpatialIndex build(CampusGraph graph) {
+        int n = graph.size();
+        int[] nodes = new int[n];
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        for (int node = 0; node < n; node++) {
+            nodes[node] = node;
+            xs[node] = graph.x(node);
+            ys[node] = graph.y(node);
+        }
+        SpatialIndex index = new SpatialIndex(nodes, xs, ys);
+        index.split(0, n, 0);
+        return index;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    // The node closest to (x, y), or -1 for an empty index
+    public int nearest(int x, int y) {
+        int[] result = nearest(x, y, 1);
+        return result.length == 0 ? -1 : result[0];
+    }
+
+    // The k nodes closest to (x, y), nearest first
+    public int[] nearest(int x, int y, int k) {
+        Neighbors best = new Neighbors(Math.min(k, nodes.length));
+        if (best.capacity > 0) nearest(0, nodes.length, 0, x, y, best);
+        return best.sorted();
+    }
+
+    // Every node within radius of (x, y), in no particular order
+    public int[] withinRadius(int x, int y, double radius) {
+        Hits hits = new Hits();
+        withinRadius(0, nodes.length, 0, x, y, radius * radius, hits);
+        return hits.toArray();
+    }
+
+    // Every node with minX <= x <= maxX and minY <= y <= maxY, in no particular order
+    public int[] inBox(int minX, int minY, int maxX, int maxY) {
+        Hits hits = new Hits();
+        inBox(0, nodes.length, 0, minX, minY, maxX, maxY, hits);
+        return hits.toArray();
+    }
+
+    // Places the median of [lo, hi) on the splitting axis at the middle, then recurses
+    private void split(int lo, int hi, int depth) {
+        if (hi - lo <= 1) return;
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth % 2 == 0 ? xs : ys);
+        split(lo, mid, depth + 1);
+        split(mid + 1, hi, depth + 1);
+    }
+
+    // Quickselect: afterwards keys[k] holds the value it would have in sorted order, with
+    // nothing larger before it and nothing smaller after it
+    private void select(int lo, int hi, int k, int[] keys) {
+        while (lo < hi) {
+            int pivot = keys[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (keys[i] < pivot) i++;
+                while (keys[j] > pivot) j--;
+                if (i <= j) swap(i++, j--);
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int node = nodes[i];
+        nodes[i] = nodes[j];
+        nodes[j] = node;
+        int x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        int y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+    }
+
+    private double distanceSquared(int slot, int x, int y) {
+        double dx = xs[slot] - x;
+        double dy = ys[slot] - y;
+        return dx * dx + dy * dy;
+    }
+
+    private void nearest(int lo, int hi, int depth, int x, int y, Neighbors best) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        best.offer(nodes[mid], distanceSquared(mid, x, y));
+
+        double diff = depth % 2 == 0 ? x - xs[mid] : y - ys[mid];
+        // Search the side holding the query point first, so the bound shrinks quickly
+        if (diff < 0) {
+            nearest(lo, mid, depth + 1, x, y, best);
+            if (diff * diff < best.bound()) nearest(mid + 1, hi, depth + 1, x, y, best);
+        } else {
+            nearest(mid + 1, hi, depth + 1, x, y, best);
+            if (diff * diff < best.bound()) nearest(lo, mid, depth + 1, x, y, best);
+        }
+    }
+
+    private void withinRadius(int lo, int hi, int depth, int x, int y, double radiusSquared, Hits hits) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (distanceSquared(mid, x, y) <= radiusSquared) hits.add(nodes[mid]);
+
+        double diff = depth % 2 == 0 ? x - xs[mid] : y - ys[mid];
+        if (diff <= 0 || diff * diff <= radiusSquared) withinRadius(lo, mid, depth + 1, x, y, radiusSquared, hits);
+        if (diff >= 0 || diff * diff <= radiusSquared) withinRadius(mid + 1, hi, depth + 1, x, y, radiusSquared, hits);
+    }
+
+    private void inBox(int lo, int hi, int depth, int minX, int minY, int maxX, int maxY, Hits hits) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        int x = xs[mid];
+        int y = ys[mid];
+        if (x >= minX && x <= maxX && y >= minY && y <= maxY) hits.add(nodes[mid]);
+
+        int value = depth % 2 == 0 ? x : y;
+        int min = depth % 2 == 0 ? minX : minY;
+        int max = depth % 2 == 0 ? maxX : maxY;
+        if (min <= value) inBox(lo, mid, depth + 1, minX, minY, maxX, maxY, hits);
+        if (max >= value) inBox(mid + 1, hi, depth + 1, minX, minY, maxX, maxY, hits);
+    }
+
+    // Bounded max-heap of the closest nodes seen so far, keyed by squared distance
+    private static final class Neighbors {
+        final int capacity;
+        final int[] ids;
+        final double[] keys;
+        int size;
+
+        Neighbors(int capacity) {
+            this.capacity = capacity;
+            this.ids = new int[capacity];
+            this.keys = new double[capacity];
+        }
+
+        // Squared distance a node must beat to get in
+        double bound() {
+            return size < capacity ? Double.POSITIVE_INFINITY : keys[0];
+        }
+
+        void offer(int id, double key) {
+            if (size < capacity) {
+                ids[size] = id;
+                keys[size] = key;
+                siftUp(size++);
+            } else if (key < keys[0]) {
+                ids[0] = id;
+                keys[0] = key;
+                siftDown(0);
+            }
+        }
+
+        // Empties the heap, farthest first, into an array ordered nearest first
+        int[] sorted() {
+            int[] result = new int[size];
+            while (size > 0) {
+                result[size - 1] = ids[0];
+                size--;
+                ids[0] = ids[size];
+                keys[0] = keys[size];
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (keys[parent] >= keys[i]) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && keys[left] > keys[largest]) largest = left;
+                if (right < size && keys[right] > keys[largest]) largest = right;
+                if (largest == i) return;
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+            double key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+    }
+
+    // Growable int array for query results
+    private static final class Hits {
+        private int[] ids = new int[16];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
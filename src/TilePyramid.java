@@ -0,0 +1,264 @@
+// TilePyramid.java
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Multi-resolution tile pyramid over a large base image, decoded lazily.
+// Level 0 is the image at full resolution, level L is subsampled by 2^L, and every level
+// is cut into TILE_SIZE square tiles. A tile is decoded straight from the file on a
+// background thread, reading only its source region at its subsampling step, so a tile
+// costs the same memory at every level and nothing outside the view is ever decoded.
+// Decoded tiles live in an LRU cache of bounded size; while a tile is loading, the
+// closest cached coarser tile is stretched over its area instead.
+// Image pixels map 1:1 onto campus map units: the CampusData coordinates are positions
+// on the base image.
+final class TilePyramid {
+    public static final int TILE_SIZE = 256;
+
+    private final ImageReader reader;       // only used on the loader thread
+    private final int width;
+    private final int height;
+    private final int levels;
+    private final int cacheCapacity;
+    private final Runnable onTileLoaded;    // called on the loader thread
+
+    private final LinkedHashMap<Long, BufferedImage> cache;
+    private final Set<Long> pending = new HashSet<>();
+    private Set<Long> visible = Collections.emptySet();
+    private final ExecutorService loader;
+
+    private long decoded;
+    private long skipped;
+
+    private TilePyramid(ImageReader reader, int cacheCapacity, Runnable onTileLoaded) throws IOException {
+        this.reader = reader;
+        this.width = reader.getWidth(0);
+        this.height = reader.getHeight(0);
+        this.cacheCapacity = cacheCapacity;
+        this.onTileLoaded = onTileLoaded;
+
+        // Coarsest level fits in a single tile
+        int count = 1;
+        while (Math.max(width, height) > TILE_SIZE << (count - 1)) {
+            count++;
+        }
+        this.levels = count;
+
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+                return size() > TilePyramid.this.cacheCapacity;
+            }
+        };
+        this.loader = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "map-tile-loader");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+    }
+
+    // Opens the image at path, falling back to a classpath resource of the same name.
+    // Only the header is read here. Returns null when the image is missing or unreadable.
+    public static TilePyramid open(String path, int cacheCapacity, Runnable onTileLoaded) {
+        try {
+            ImageInputStream input = null;
+            File file = new File(path);
+            if (file.isFile()) {
+                input = ImageIO.createImageInputStream(file);
+            } else {
+                InputStream resource = TilePyramid.class.getResourceAsStream("/" + path);
+                if (resource != null) input = ImageIO.createImageInputStream(resource);
+            }
+            if (input == null) return null;
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                input.close();
+                return null;
+            }
+            ImageReader reader = readers.next();
+            reader.setInput(input, true, true);
+            return new TilePyramid(reader, cacheCapacity, onTileLoaded);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int levels() {
+        return levels;
+    }
+
+    // Draws the tiles covering the panel at the viewport's zoom, queueing the missing
+    // ones. deviceScale is the screen's pixel density, so HiDPI displays get sharper levels.
+    public void draw(Graphics2D g, MapViewport viewport, int panelWidth, int panelHeight, double deviceScale) {
+        int level = levelFor(viewport.zoom() * deviceScale);
+        int span = TILE_SIZE << level; // image pixels per tile at this level
+
+        // Image pixels visible in the panel, clipped to the image
+        int minX = Math.max(0, (int) Math.floor(viewport.mapX(0)));
+        int minY = Math.max(0, (int) Math.floor(viewport.mapY(0)));
+        int maxX = Math.min(width, (int) Math.ceil(viewport.mapX(panelWidth)));
+        int maxY = Math.min(height, (int) Math.ceil(viewport.mapY(panelHeight)));
+        if (minX >= maxX || minY >= maxY) return;
+
+        Set<Long> wanted = new HashSet<>();
+        for (int row = minY / span; row * span < maxY; row++) {
+            for (int col = minX / span; col * span < maxX; col++) {
+                wanted.add(key(level, col, row));
+            }
+        }
+        synchronized (this) {
+            visible = wanted;
+        }
+
+        for (long key : wanted) {
+            int col = col(key);
+            int row = row(key);
+            int x0 = col * span;
+            int y0 = row * span;
+            int x1 = Math.min(width, x0 + span);
+            int y1 = Math.min(height, y0 + span);
+            int dx0 = viewport.screenX(x0), dy0 = viewport.screenY(y0);
+            int dx1 = viewport.screenX(x1), dy1 = viewport.screenY(y1);
+
+            BufferedImage tile = cached(key);
+            if (tile != null) {
+                g.drawImage(tile, dx0, dy0, dx1, dy1, 0, 0, tile.getWidth(), tile.getHeight(), null);
+                continue;
+            }
+            request(key);
+
+            // Stretch the part of the nearest cached ancestor that covers this tile
+            for (int up = level + 1; up < levels; up++) {
+                int shift = up - level;
+                BufferedImage coarse = cached(key(up, col >> shift, row >> shift));
+                if (coarse == null) continue;
+                int step = 1 << up;
+                int ax = (col >> shift) * (TILE_SIZE << up);
+                int ay = (row >> shift) * (TILE_SIZE << up);
+                g.drawImage(coarse, dx0, dy0, dx1, dy1,
+                        (x0 - ax) / step, (y0 - ay) / step,
+                        (x1 - ax + step - 1) / step, (y1 - ay + step - 1) / step, null);
+                break;
+            }
+        }
+    }
+
+    // Coarsest level whose pixels are still no larger than a screen pixel
+    int levelFor(double screenPixelsPerImagePixel) {
+        int level = 0;
+        while (level + 1 < levels && (1 << (level + 1)) * screenPixelsPerImagePixel <= 1.0) {
+            level++;
+        }
+        return level;
+    }
+
+    public synchronized int cachedTiles() {
+        return cache.size();
+    }
+
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    private synchronized BufferedImage cached(long key) {
+        return cache.get(key);
+    }
+
+    private synchronized void request(long key) {
+        if (!pending.add(key)) return;
+        loader.execute(() -> load(key));
+    }
+
+    private void load(long key) {
+        synchronized (this) {
+            // Panned or zoomed away before the loader got here
+            if (!visible.contains(key)) {
+                pending.remove(key);
+                skipped++;
+                return;
+            }
+        }
+
+        BufferedImage tile = null;
+        try {
+            tile = decode(level(key), col(key), row(key));
+        } catch (IOException | RuntimeException e) {
+            // Leave the area blank; the tile is requested again on a later paint
+        }
+
+        synchronized (this) {
+            pending.remove(key);
+            if (tile == null) return;
+            cache.put(key, tile);
+            decoded++;
+        }
+        onTileLoaded.run();
+    }
+
+    private BufferedImage decode(int level, int col, int row) throws IOException {
+        int step = 1 << level;
+        int span = TILE_SIZE << level;
+        int x = col * span;
+        int y = row * span;
+        Rectangle region = new Rectangle(x, y, Math.min(span, width - x), Math.min(span, height - y));
+
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceRegion(region);
+        param.setSourceSubsampling(step, step, 0, 0);
+        BufferedImage raw = reader.read(0, param);
+        if (GraphicsEnvironment.isHeadless()) return raw;
+
+        // Copy into the screen's pixel format so drawing the tile needs no conversion
+        GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        BufferedImage tile = config.createCompatibleImage(raw.getWidth(), raw.getHeight(), raw.getTransparency());
+        Graphics2D g = tile.createGraphics();
+        try {
+            g.drawImage(raw, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return tile;
+    }
+
+    private static long key(int level, int col, int row) {
+        return ((long) level << 56) | ((long) col << 28) | row;
+    }
+
+    private static int level(long key) {
+        return (int) (key >>> 56);
+    }
+
+    private static int col(long key) {
+        return (int) ((key >>> 28) & 0xFFFFFFF);
+    }
+
+    private static int row(long key) {
+        return (int) (key & 0xFFFFFFF);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Map tiles: %dx%d, %d levels, %d/%d cached, %d decoded, %d skipped",
+                width, height, levels, cache.size(), cacheCapacity, decoded, skipped);
+    }
+}
@@ -0,0 +1,93 @@
+// TimeDependentSearch.java
+import java.util.Arrays;
+
+// Time-dependent A*: labels are arrival times, and an edge is relaxed with its travel time
+// at the moment the walk reaches its tail. With FIFO travel times (see TravelTimeProfiles)
+// waiting never helps, so the first settled arrival at a node is its earliest, exactly as
+// in static Dijkstra. The heuristic is the static straight-line time bound scaled by the
+// quietest congestion factor, which no departure time can beat, so it stays consistent
+// and the search is as goal-directed as the static A* query.
+// Stateless apart from the profiles, so one instance can be shared between threads.
+final class TimeDependentSearch {
+    private final TravelTimeProfiles profiles;
+    private final CampusGraph graph;
+
+    public TimeDependentSearch(TravelTimeProfiles profiles) {
+        this.profiles = profiles;
+        this.graph = profiles.graph();
+    }
+
+    // Earliest-arrival path leaving source at minute-of-day departure. The result's cost is
+    // the walking time in minutes.
+    public SearchResult search(int source, int target, double departure) {
+        SearchStats.Probe probe = SearchStats.begin(SearchStats.Algorithm.TIME_DEPENDENT);
+        int n = graph.size();
+        double bound = TravelTimeProfiles.minFactor();
+
+        double[] arrival = new double[n];
+        int[] previous = new int[n];
+        boolean[] closed = new boolean[n];
+        Arrays.fill(arrival, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, -1);
+
+        IndexedMinHeap openSet = new IndexedMinHeap(n);
+        arrival[source] = departure;
+        openSet.insert(source, departure + bound * graph.lowerBound(source, target, CampusGraph.Metric.TIME));
+
+        int expanded = 0;
+        long relaxed = 0;
+        while (!openSet.isEmpty()) {
+            int current = openSet.pollMin();
+            closed[current] = true;
+            expanded++;
+
+            if (current == target) {
+                if (probe != null) probe.end(expanded, relaxed, openSet);
+                return new SearchResult(pathTo(previous, target), arrival[target] - departure, expanded);
+            }
+            if ((expanded & 0xFF) == 0) QueryCancellation.checkpoint();
+
+            double now = arrival[current];
+            relaxed += graph.edgeEnd(current) - graph.edgeStart(current);
+            for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+                int neighbor = graph.target(e);
+                if (closed[neighbor]) continue;
+
+                double reached = now + profiles.travelTime(e, now);
+                if (reached < arrival[neighbor]) {
+                    previous[neighbor] = current;
+                    arrival[neighbor] = reached;
+                    openSet.insertOrDecrease(neighbor,
+                            reached + bound * graph.lowerBound(neighbor, target, CampusGraph.Metric.TIME));
+                }
+            }
+        }
+
+        if (probe != null) probe.end(expanded, relaxed, openSet);
+        return new SearchResult(null, Double.POSITIVE_INFINITY, expanded);
+    }
+
+    // Minutes walked on arrival at each node of a fixed path leaving at departure, edge by
+    // edge; the last entry is the whole walk's time
+    public double[] arrivalTimes(int[] path, double departure) {
+        double[] times = new double[path.length];
+        double now = departure;
+        for (int i = 0; i + 1 < path.length; i++) {
+            now += profiles.travelTime(graph.findEdge(path[i], path[i + 1]), now);
+            times[i + 1] = now - departure;
+        }
+        return times;
+    }
+
+    private static int[] pathTo(int[] previous, int target) {
+        int length = 0;
+        for (int node = target; node != -1; node = previous[node]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int node = target; node != -1; node = previous[node]) {
+            path[--length] = node;
+        }
+        return path;
+    }
+}
@@ -0,0 +1,113 @@
+// TravelTimeProfiles.java
+
+// Time-dependent walking times: every edge's travel time over the day is its static time
+// scaled by a periodic, piecewise-linear congestion profile with one sample per hour,
+// interpolated linearly in between and wrapping from 23:00 back to 00:00.
+// Edges share a handful of profiles chosen by the location types at their ends, so the
+// whole model is one float per profile-hour and one byte per edge.
+//
+// Queries need FIFO travel times: leaving later must never mean arriving earlier, i.e.
+// time * (factor drop per minute) <= 1 on every edge. An edge too long for its profile's
+// steepest drop uses the flat profile instead, which keeps label-setting searches exact.
+final class TravelTimeProfiles {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int HOURS = 24;
+
+    // Profile ids
+    static final int FLAT = 0;
+    static final int GENERAL = 1;
+    static final int ACADEMIC = 2;
+    static final int DINING = 3;
+
+    // Congestion factor at the start of each hour, by profile
+    private static final float[] FACTORS = {
+            // FLAT
+            1f, 1f, 1f, 1f, 1f, 1f, 1f, 1f, 1f, 1f, 1f, 1f,
+            1f, 1f, 1f, 1f, 1f, 1f, 1f, 1f, 1f, 1f, 1f, 1f,
+            // GENERAL: morning, lunch and evening rush, quiet nights
+            0.8f, 0.8f, 0.8f, 0.8f, 0.8f, 0.8f, 0.8f, 1.0f, 1.3f, 1.3f, 1.0f, 1.0f,
+            1.4f, 1.4f, 1.0f, 1.0f, 1.0f, 1.2f, 1.2f, 1.0f, 1.0f, 1.0f, 0.8f, 0.8f,
+            // ACADEMIC: crowds at lecture changeovers
+            0.8f, 0.8f, 0.8f, 0.8f, 0.8f, 0.8f, 0.8f, 1.1f, 1.5f, 1.3f, 1.4f, 1.3f,
+            1.5f, 1.4f, 1.4f, 1.3f, 1.4f, 1.2f, 1.0f, 1.0f, 0.9f, 0.9f, 0.8f, 0.8f,
+            // DINING: lunch rush at the cafeterias, evening rush at the night market
+            0.8f, 0.8f, 0.8f, 0.8f, 0.8f, 0.8f, 0.8f, 1.0f, 1.2f, 1.0f, 1.0f, 1.3f,
+            2.0f, 2.0f, 1.4f, 1.0f, 1.0f, 1.4f, 1.8f, 1.8f, 1.4f, 1.0f, 0.9f, 0.8f,
+    };
+    private static final int PROFILES = FACTORS.length / HOURS;
+    private static final float MIN_FACTOR;
+    private static final double[] STEEPEST_DROP = new double[PROFILES]; // factor drop per minute
+
+    static {
+        float min = Float.POSITIVE_INFINITY;
+        for (int p = 0; p < PROFILES; p++) {
+            for (int h = 0; h < HOURS; h++) {
+                float here = FACTORS[p * HOURS + h];
+                float next = FACTORS[p * HOURS + (h + 1) % HOURS];
+                min = Math.min(min, here);
+                STEEPEST_DROP[p] = Math.max(STEEPEST_DROP[p], (here - next) / 60.0);
+            }
+        }
+        MIN_FACTOR = min;
+    }
+
+    private final CampusGraph graph;
+    private final byte[] profileOf; // by edge id
+
+    private TravelTimeProfiles(CampusGraph graph, byte[] profileOf) {
+        this.graph = graph;
+        this.profileOf = profileOf;
+    }
+
+    // Assigns every edge the profile of its busiest end: dining, then academic, else general
+    public static TravelTimeProfiles build(CampusGraph graph) {
+        byte[] profileOf = new byte[graph.edgeCount()];
+        for (int u = 0; u < graph.size(); u++) {
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int profile = profileFor(graph.type(u), graph.type(graph.target(e)));
+                if (graph.time(e) * STEEPEST_DROP[profile] > 1.0) profile = FLAT;
+                profileOf[e] = (byte) profile;
+            }
+        }
+        return new TravelTimeProfiles(graph, profileOf);
+    }
+
+    private static int profileFor(LocationType a, LocationType b) {
+        if (a == LocationType.DINING || b == LocationType.DINING) return DINING;
+        if (a == LocationType.ACADEMIC || b == LocationType.ACADEMIC) return ACADEMIC;
+        return GENERAL;
+    }
+
+    public CampusGraph graph() {
+        return graph;
+    }
+
+    public int profile(int edge) {
+        return profileOf[edge];
+    }
+
+    // Minutes to walk edge when setting off at minute-of-day departure (any real value;
+    // it is taken modulo one day)
+    public double travelTime(int edge, double departure) {
+        double minute = departure % MINUTES_PER_DAY;
+        if (minute < 0) minute += MINUTES_PER_DAY;
+        int hour = (int) (minute / 60);
+        double fraction = (minute - hour * 60) / 60.0;
+
+        int base = profileOf[edge] * HOURS;
+        float from = FACTORS[base + hour];
+        float to = FACTORS[base + (hour + 1) % HOURS];
+        return graph.time(edge) * (from + (to - from) * fraction);
+    }
+
+    // Smallest factor of any profile: scaling static lower bounds by it keeps them valid
+    public static double minFactor() {
+        return MIN_FACTOR;
+    }
+
+    public static String formatMinute(double minute) {
+        int total = (int) Math.floor(minute) % MINUTES_PER_DAY;
+        if (total < 0) total += MINUTES_PER_DAY;
+        return String.format("%02d:%02d", total / 60, total % 60);
+    }
+}
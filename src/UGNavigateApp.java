@@ -1,21 +1,42 @@
 // UGNavigateApp.java
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 public class UGNavigateApp extends JFrame {
     private static final int CANVAS_WIDTH = 1200;
     private static final int CANVAS_HEIGHT = 800;
     private static final int POINT_SIZE = 8;
+    private static final int ROUTE_CACHE_SIZE = 256;
+    private static final int LANDMARK_SUGGESTIONS = 8;
+    static final double LANDMARK_RADIUS = 100; // map units around a landmark
+    private static final String MAP_IMAGE = "UG-map.png";
+    static final String GRAPH_FILE = "campus.graph";  // written by GraphCompiler
+    private static final int TILE_CACHE_SIZE = 64;     // decoded 256x256 tiles, about 16 MB
+    private static final double ZOOM_STEP = 1.25;      // per mouse-wheel notch
+    static final long COMPARISON_BUDGET_MS = 2000; // per algorithm, in Compare All and RouteServer
+    private static final int ROUTES_SHOWN = 3;      // listed and drawn per query
 
     // Campus locations with realistic UG coordinates
     private Map<String, Location> locations = new HashMap<>();
-    private Map<String, Map<String, Double>> distanceMatrix = new HashMap<>();
-    private Map<String, Map<String, Double>> timeMatrix = new HashMap<>();
+    private List<Walkway> walkways = new ArrayList<>();
     private RouteCalculator routeCalculator;
+    private RouteComparison routeComparison;
     private PathfindingAlgorithms pathfinding;
 
     // UI Components
@@ -27,6 +48,11 @@ public class UGNavigateApp extends JFrame {
     private java.util.List<Route> currentRoutes;
     private JComboBox<String> sortOptionCombo;
     private JComboBox<String> algorithmCombo;
+    private JComboBox<String> departureCombo;
+    private RouteQueryExecutor queryExecutor;
+    private CampusMapRenderer mapRenderer;
+    private final MapViewport viewport = new MapViewport();
+    private final RouteCache routeCache = new RouteCache(ROUTE_CACHE_SIZE);
 
     public UGNavigateApp() {
         setTitle("UG Navigate - University of Ghana Campus Routing System");
@@ -34,8 +60,18 @@ public class UGNavigateApp extends JFrame {
         setSize(CANVAS_WIDTH, CANVAS_HEIGHT);
 
         initializeLocations();
-        initializeDistanceMatrix();
-        routeCalculator = new RouteCalculator(locations, distanceMatrix, timeMatrix);
+        initializeWalkways();
+        routeCalculator = loadCompiledGraph(GraphFile.sourceHash(locations, walkways));
+        if (routeCalculator == null) {
+            routeCalculator = new RouteCalculator(locations, walkways);
+            System.err.println("Campus graph built from CampusData");
+        }
+        routeCalculator.getAllPairsTable(); // precompute Floyd-Warshall once at load time
+        routeCalculator.getContractionHierarchy(); // and the shortcut hierarchy
+        routeCalculator.getReferenceDistances(); // and the ALT reference distances
+        routeCalculator.getLandmarkIndex();
+        routeCalculator.getSpatialIndex();
+        routeComparison = new RouteComparison(routeCalculator, COMPARISON_BUDGET_MS);
         pathfinding = new PathfindingAlgorithms();
         currentRoutes = new ArrayList<>();
 
@@ -43,87 +79,34 @@ public class UGNavigateApp extends JFrame {
         setLocationRelativeTo(null);
     }
 
-    private void initializeLocations() {
-        locations = new HashMap<>();
-
-        // Initialize UG campus locations with grid coordinates
-        locations.put("Senate House", new Location("Senate House", 400, 200, LocationType.ADMINISTRATIVE));
-        locations.put("Central Administration", new Location("Central Administration", 350, 150, LocationType.ADMINISTRATIVE));
-        locations.put("John Evans Atta Mills Library", new Location("John Evans Atta Mills Library", 450, 250, LocationType.ACADEMIC));
-        locations.put("Balme Library", new Location("Balme Library", 380, 280, LocationType.ACADEMIC));
-        locations.put("Great Hall", new Location("Great Hall", 500, 180, LocationType.EVENT));
-
-        // Halls of Residence
-        locations.put("Legon Hall", new Location("Legon Hall", 200, 100, LocationType.RESIDENTIAL));
-        locations.put("Akuafo Hall", new Location("Akuafo Hall", 150, 150, LocationType.RESIDENTIAL));
-        locations.put("Commonwealth Hall", new Location("Commonwealth Hall", 250, 200, LocationType.RESIDENTIAL));
-        locations.put("Volta Hall", new Location("Volta Hall", 300, 250, LocationType.RESIDENTIAL));
-        locations.put("Achimota Hall", new Location("Achimota Hall", 180, 300, LocationType.RESIDENTIAL));
-
-        // Academic Buildings
-        locations.put("School of Engineering", new Location("School of Engineering", 600, 200, LocationType.ACADEMIC));
-        locations.put("School of Law", new Location("School of Law", 550, 300, LocationType.ACADEMIC));
-        locations.put("Department of Computer Science", new Location("Department of Computer Science", 650, 250, LocationType.ACADEMIC));
-        locations.put("School of Business", new Location("School of Business", 520, 350, LocationType.ACADEMIC));
-        locations.put("School of Medicine", new Location("School of Medicine", 700, 300, LocationType.ACADEMIC));
-
-        // Services and Facilities
-        locations.put("University Hospital", new Location("University Hospital", 750, 350, LocationType.MEDICAL));
-        locations.put("Central Cafeteria", new Location("Central Cafeteria", 400, 320, LocationType.DINING));
-        locations.put("Night Market", new Location("Night Market", 320, 380, LocationType.DINING));
-        locations.put("Sports Complex", new Location("Sports Complex", 600, 400, LocationType.RECREATION));
-        locations.put("University Field", new Location("University Field", 500, 450, LocationType.RECREATION));
-
-        // Banks and Services
-        locations.put("UG Branch GCB Bank", new Location("UG Branch GCB Bank", 430, 180, LocationType.BANKING));
-        locations.put("University Post Office", new Location("University Post Office", 380, 170, LocationType.SERVICE));
-        locations.put("Main Gate", new Location("Main Gate", 100, 200, LocationType.ENTRANCE));
-        locations.put("East Gate", new Location("East Gate", 800, 250, LocationType.ENTRANCE));
-
-        // Additional Academic Units
-        locations.put("Institute of African Studies", new Location("Institute of African Studies", 480, 280, LocationType.ACADEMIC));
-        locations.put("School of Performing Arts", new Location("School of Performing Arts", 350, 400, LocationType.ACADEMIC));
-        locations.put("Noguchi Memorial Institute", new Location("Noguchi Memorial Institute", 720, 200, LocationType.RESEARCH));
-    }
-
-    private void initializeDistanceMatrix() {
-        distanceMatrix = new HashMap<>();
-        timeMatrix = new HashMap<>();
-
-        // Calculate distances between all locations using Euclidean distance
-        for (String loc1 : locations.keySet()) {
-            distanceMatrix.put(loc1, new HashMap<>());
-            timeMatrix.put(loc1, new HashMap<>());
-
-            for (String loc2 : locations.keySet()) {
-                if (loc1.equals(loc2)) {
-                    distanceMatrix.get(loc1).put(loc2, 0.0);
-                    timeMatrix.get(loc1).put(loc2, 0.0);
-                } else {
-                    Location l1 = locations.get(loc1);
-                    Location l2 = locations.get(loc2);
-
-                    // Calculate Euclidean distance and convert to campus scale (in meters)
-                    double distance = Math.sqrt(Math.pow(l2.x - l1.x, 2) + Math.pow(l2.y - l1.y, 2)) * 2.5;
-
-                    // Calculate time based on walking speed (5 km/h average) with traffic factors
-                    double baseTime = distance / (5000.0 / 60.0); // minutes
-                    double trafficFactor = getTrafficFactor(l1.type, l2.type);
-                    double time = baseTime * trafficFactor;
-
-                    distanceMatrix.get(loc1).put(loc2, distance);
-                    timeMatrix.get(loc1).put(loc2, time);
-                }
+    // Maps the compiled graph file when there is one, so the graph and its all-pairs
+    // table are used in place instead of being rebuilt; null when there is none or it was
+    // compiled from campus data other than the current one (sourceHash)
+    private RouteCalculator loadCompiledGraph(int sourceHash) {
+        Path path = Paths.get(GRAPH_FILE);
+        if (!Files.isRegularFile(path)) return null;
+        try {
+            GraphFile file = GraphFile.open(path);
+            if (file.sourceHash != sourceHash) {
+                System.err.println("Ignoring " + path + ": compiled from older campus data, rerun GraphCompiler");
+                return null;
             }
+            System.err.println("Campus graph mapped from " + path);
+            locations = GraphFile.locations(file.graph);
+            walkways = GraphFile.walkways(file.graph);
+            return new RouteCalculator(file.graph, file.allPairs);
+        } catch (IOException e) {
+            System.err.println("Ignoring " + path + ": " + e.getMessage());
+            return null;
         }
     }
 
-    private double getTrafficFactor(LocationType type1, LocationType type2) {
-        // Simulate traffic conditions based on location types
-        if (type1 == LocationType.DINING || type2 == LocationType.DINING) return 1.3;
-        if (type1 == LocationType.ACADEMIC || type2 == LocationType.ACADEMIC) return 1.1;
-        if (type1 == LocationType.ADMINISTRATIVE || type2 == LocationType.ADMINISTRATIVE) return 1.2;
-        return 1.0; // Normal traffic
+    private void initializeLocations() {
+        locations = CampusData.createLocations();
+    }
+
+    private void initializeWalkways() {
+        walkways = CampusData.createWalkways(locations);
     }
 
     private void setupUI() {
@@ -138,11 +121,55 @@ public class UGNavigateApp extends JFrame {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                drawCampusMap(g);
+                mapRenderer.paint((Graphics2D) g, getWidth(), getHeight(), currentRoutes);
             }
         };
+        // Tiles decode on a background thread; each one that arrives triggers a repaint
+        TilePyramid tiles = TilePyramid.open(MAP_IMAGE, TILE_CACHE_SIZE,
+                () -> SwingUtilities.invokeLater(mapPanel::repaint));
+        mapRenderer = new CampusMapRenderer(locations, walkways, viewport, tiles);
+
         mapPanel.setPreferredSize(new Dimension(800, 600));
         mapPanel.setBackground(new Color(240, 248, 255));
+        mapPanel.setToolTipText("Click a location to start there, right-click to go there; "
+                + "drag to pan, scroll to zoom, double-click empty map to reset");
+        MouseAdapter mapMouse = new MouseAdapter() {
+            private Point dragFrom;
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                selectLocationAt(e);
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragFrom = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (dragFrom == null) return;
+                viewport.panBy(e.getX() - dragFrom.x, e.getY() - dragFrom.y);
+                dragFrom = e.getPoint();
+                mapPanel.repaint();
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                dragFrom = null;
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                double factor = Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation());
+                if (viewport.zoomAt(e.getX(), e.getY(), factor)) {
+                    mapPanel.repaint();
+                }
+            }
+        };
+        mapPanel.addMouseListener(mapMouse);
+        mapPanel.addMouseMotionListener(mapMouse);
+        mapPanel.addMouseWheelListener(mapMouse);
         add(mapPanel, BorderLayout.CENTER);
 
         // Results Panel
@@ -150,6 +177,22 @@ public class UGNavigateApp extends JFrame {
         add(resultsPanel, BorderLayout.EAST);
     }
 
+    // Hit-tests a click against the spatial index and fills in the origin or destination;
+    // a double click away from every location resets the view
+    private void selectLocationAt(MouseEvent e) {
+        String name = routeCalculator.locationAt(
+                (int) Math.round(viewport.mapX(e.getX())), (int) Math.round(viewport.mapY(e.getY())),
+                viewport.mapLength(POINT_SIZE * 2));
+        if (name == null) {
+            if (e.getClickCount() == 2) {
+                viewport.reset();
+                mapPanel.repaint();
+            }
+            return;
+        }
+        (SwingUtilities.isRightMouseButton(e) ? toComboBox : fromComboBox).setSelectedItem(name);
+    }
+
     private JPanel createControlPanel() {
         JPanel panel = new JPanel(new FlowLayout());
         panel.setBorder(BorderFactory.createTitledBorder("Route Planning"));
@@ -160,10 +203,19 @@ public class UGNavigateApp extends JFrame {
 
         // Algorithm selector
         algorithmCombo = new JComboBox<>(new String[]{
-                "Dijkstra's Algorithm", "Floyd-Warshall", "A* Search",
-                "Vogel Approximation", "Northwest Corner"
+                "Dijkstra's Algorithm", "Floyd-Warshall", "A* Search", "A* (ALT)", "Bidirectional A*",
+                "Contraction Hierarchy", "Vogel Approximation", "Northwest Corner", "Time-Dependent"
         });
 
+        // Departure hour for time-dependent routing
+        String[] hours = new String[24];
+        for (int h = 0; h < hours.length; h++) {
+            hours[h] = TravelTimeProfiles.formatMinute(h * 60);
+        }
+        departureCombo = new JComboBox<>(hours);
+        departureCombo.setSelectedIndex(java.time.LocalTime.now().getHour());
+        departureCombo.setToolTipText("Departure time for Time-Dependent routing");
+
         // Sort options
         sortOptionCombo = new JComboBox<>(new String[]{
                 "Sort by Distance", "Sort by Time", "Sort by Landmarks"
@@ -172,10 +224,20 @@ public class UGNavigateApp extends JFrame {
         // Landmark search
         landmarkField = new JTextField(15);
         landmarkField.setToolTipText("Enter landmark type (e.g., Bank, Library, Cafeteria)");
+        installLandmarkAutocomplete();
+
+        // Progress indicator for background route queries
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setStringPainted(true);
+        queryExecutor = new RouteQueryExecutor(progressBar);
 
         // Buttons
         JButton findRouteBtn = new JButton("Find Route");
+        JButton compareBtn = new JButton("Compare All");
+        compareBtn.setToolTipText("Run every algorithm at once and compare their routes");
         JButton searchLandmarkBtn = new JButton("Search by Landmark");
+        JButton closureBtn = new JButton("Close/Reopen Walkway");
+        closureBtn.setToolTipText("Close the walkway between From and To, or reopen it if it is closed");
         JButton clearBtn = new JButton("Clear");
 
         // Add components
@@ -185,7 +247,10 @@ public class UGNavigateApp extends JFrame {
         panel.add(toComboBox);
         panel.add(new JLabel("Algorithm:"));
         panel.add(algorithmCombo);
+        panel.add(new JLabel("Depart:"));
+        panel.add(departureCombo);
         panel.add(findRouteBtn);
+        panel.add(compareBtn);
 
         panel.add(Box.createHorizontalStrut(20));
         panel.add(new JLabel("Landmark:"));
@@ -194,191 +259,154 @@ public class UGNavigateApp extends JFrame {
 
         panel.add(Box.createHorizontalStrut(20));
         panel.add(sortOptionCombo);
+        panel.add(closureBtn);
         panel.add(clearBtn);
+        panel.add(progressBar);
 
         // Event listeners
         findRouteBtn.addActionListener(e -> findOptimalRoute());
+        compareBtn.addActionListener(e -> compareAlgorithms());
         searchLandmarkBtn.addActionListener(e -> searchByLandmark());
+        closureBtn.addActionListener(e -> toggleWalkwayClosure());
         clearBtn.addActionListener(e -> clearResults());
 
         return panel;
     }
 
-    private JPanel createResultsPanel() {
-        JPanel panel = new JPanel(new BorderLayout());
-        panel.setBorder(BorderFactory.createTitledBorder("Route Options"));
-        panel.setPreferredSize(new Dimension(400, 600));
-
-        resultArea = new JTextArea(30, 25);
-        resultArea.setEditable(false);
-        resultArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
-
-        JScrollPane scrollPane = new JScrollPane(resultArea);
-        panel.add(scrollPane, BorderLayout.CENTER);
-
-        return panel;
-    }
-
-    private void drawCampusMap(Graphics g) {
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        // Draw campus background
-        g2d.setColor(new Color(245, 255, 245));
-        g2d.fillRect(0, 0, getWidth(), getHeight());
-
-        // Draw grid for reference
-        g2d.setColor(new Color(230, 230, 230));
-        for (int i = 0; i < getWidth(); i += 50) {
-            g2d.drawLine(i, 0, i, getHeight());
-        }
-        for (int i = 0; i < getHeight(); i += 50) {
-            g2d.drawLine(0, i, getWidth(), i);
-        }
-
-        // Draw connections between nearby locations
-        g2d.setColor(new Color(200, 200, 200));
-        g2d.setStroke(new BasicStroke(1));
-        drawCampusConnections(g2d);
+    // Suggests location names and landmark keywords under the landmark field as the user types
+    private void installLandmarkAutocomplete() {
+        JPopupMenu suggestions = new JPopupMenu();
+        suggestions.setFocusable(false);
 
-        // Draw all locations
-        for (Location location : locations.values()) {
-            drawLocation(g2d, location, false);
-        }
+        landmarkField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                update();
+            }
 
-        // Draw current routes
-        if (!currentRoutes.isEmpty()) {
-            drawRoutes(g2d);
-        }
-    }
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                update();
+            }
 
-    private void drawCampusConnections(Graphics2D g2d) {
-        // Draw main campus pathways (simplified representation)
-        String[][] connections = {
-                {"Main Gate", "Central Administration"},
-                {"Central Administration", "Senate House"},
-                {"Senate House", "John Evans Atta Mills Library"},
-                {"John Evans Atta Mills Library", "Central Cafeteria"},
-                {"Commonwealth Hall", "Night Market"},
-                {"School of Engineering", "Department of Computer Science"},
-                {"University Hospital", "School of Medicine"},
-                // Add more realistic campus connections
-        };
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
 
-        for (String[] connection : connections) {
-            Location loc1 = locations.get(connection[0]);
-            Location loc2 = locations.get(connection[1]);
-            if (loc1 != null && loc2 != null) {
-                g2d.drawLine(loc1.x, loc1.y, loc2.x, loc2.y);
+            private void update() {
+                // The document is locked while listeners run; read it once the edit is done
+                SwingUtilities.invokeLater(() -> showLandmarkSuggestions(suggestions));
             }
-        }
+        });
+        landmarkField.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                suggestions.setVisible(false);
+            }
+        });
     }
 
-    private void drawLocation(Graphics2D g2d, Location location, boolean isHighlighted) {
-        Color color = getLocationColor(location.type);
-        if (isHighlighted) {
-            g2d.setColor(Color.YELLOW);
-            g2d.fillOval(location.x - POINT_SIZE, location.y - POINT_SIZE, POINT_SIZE * 2, POINT_SIZE * 2);
-        }
+    private void showLandmarkSuggestions(JPopupMenu suggestions) {
+        suggestions.setVisible(false);
+        suggestions.removeAll();
+        if (!landmarkField.isFocusOwner()) return;
 
-        g2d.setColor(color);
-        g2d.fillOval(location.x - POINT_SIZE/2, location.y - POINT_SIZE/2, POINT_SIZE, POINT_SIZE);
+        String text = landmarkField.getText().trim();
+        List<String> matches = routeCalculator.getLandmarkIndex().complete(text, LANDMARK_SUGGESTIONS);
+        if (matches.isEmpty() || (matches.size() == 1 && matches.get(0).equalsIgnoreCase(text))) return;
 
-        // Draw location name
-        g2d.setColor(Color.BLACK);
-        g2d.setFont(new Font("Arial", Font.PLAIN, 10));
-        FontMetrics fm = g2d.getFontMetrics();
-        int textWidth = fm.stringWidth(location.name);
-        g2d.drawString(location.name, location.x - textWidth/2, location.y - 15);
-    }
-
-    private Color getLocationColor(LocationType type) {
-        switch (type) {
-            case ACADEMIC: return Color.BLUE;
-            case RESIDENTIAL: return Color.GREEN;
-            case ADMINISTRATIVE: return Color.RED;
-            case DINING: return Color.ORANGE;
-            case RECREATION: return Color.MAGENTA;
-            case MEDICAL: return Color.PINK;
-            case BANKING: return Color.YELLOW;
-            case SERVICE: return Color.CYAN;
-            case ENTRANCE: return Color.BLACK;
-            case RESEARCH: return Color.DARK_GRAY;
-            case EVENT: return Color.LIGHT_GRAY;
-            default: return Color.GRAY;
+        for (String match : matches) {
+            JMenuItem item = new JMenuItem(match);
+            item.addActionListener(e -> landmarkField.setText(match));
+            suggestions.add(item);
         }
+        suggestions.show(landmarkField, 0, landmarkField.getHeight());
     }
 
-    private void drawRoutes(Graphics2D g2d) {
-        if (currentRoutes.isEmpty()) return;
-
-        Color[] routeColors = {Color.BLUE, Color.RED, Color.GREEN};
-        int colorIndex = 0;
+    private JPanel createResultsPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBorder(BorderFactory.createTitledBorder("Route Options"));
+        panel.setPreferredSize(new Dimension(400, 600));
 
-        for (Route route : currentRoutes) {
-            g2d.setColor(routeColors[colorIndex % routeColors.length]);
-            g2d.setStroke(new BasicStroke(3));
+        resultArea = new JTextArea(30, 25);
+        resultArea.setEditable(false);
+        resultArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
 
-            for (int i = 0; i < route.path.size() - 1; i++) {
-                Location from = locations.get(route.path.get(i));
-                Location to = locations.get(route.path.get(i + 1));
-                g2d.drawLine(from.x, from.y, to.x, to.y);
+        JScrollPane scrollPane = new JScrollPane(resultArea);
+        panel.add(scrollPane, BorderLayout.CENTER);
 
-                // Draw arrow head
-                drawArrowHead(g2d, from.x, from.y, to.x, to.y);
-            }
-            colorIndex++;
-        }
+        return panel;
     }
 
-    private void drawArrowHead(Graphics2D g2d, int x1, int y1, int x2, int y2) {
-        int arrowLength = 10;
-        double angle = Math.atan2(y2 - y1, x2 - x1);
+    private void findOptimalRoute() {
+        String from = (String) fromComboBox.getSelectedItem();
+        String to = (String) toComboBox.getSelectedItem();
+        String algorithm = (String) algorithmCombo.getSelectedItem();
 
-        int arrowX1 = (int) (x2 - arrowLength * Math.cos(angle - Math.PI / 6));
-        int arrowY1 = (int) (y2 - arrowLength * Math.sin(angle - Math.PI / 6));
-        int arrowX2 = (int) (x2 - arrowLength * Math.cos(angle + Math.PI / 6));
-        int arrowY2 = (int) (y2 - arrowLength * Math.sin(angle + Math.PI / 6));
+        if (from.equals(to)) {
+            JOptionPane.showMessageDialog(this, "Source and destination cannot be the same!");
+            return;
+        }
 
-        g2d.drawLine(x2, y2, arrowX1, arrowY1);
-        g2d.drawLine(x2, y2, arrowX2, arrowY2);
+        // Alternatives are ranked by time when the results are sorted by time
+        CampusGraph.Metric metric = "Sort by Time".equals(getSortOption())
+                ? CampusGraph.Metric.TIME : CampusGraph.Metric.DISTANCE;
+
+        // Time-dependent results differ by departure hour, so the hour is part of the cache key
+        int departure = departureCombo.getSelectedIndex() * 60;
+        String cacheAlgorithm = algorithm.equals("Time-Dependent")
+                ? algorithm + " " + TravelTimeProfiles.formatMinute(departure) : algorithm;
+
+        // Generate multiple route options using different algorithms, off the EDT
+        runQuery(algorithm, new RouteCache.Key(from, to, cacheAlgorithm, getSortOption()), () -> {
+            switch (algorithm) {
+                case "Dijkstra's Algorithm":
+                    return routeCalculator.findRoutesDijkstra(from, to);
+                case "Floyd-Warshall":
+                    return routeCalculator.findRoutesFloydWarshall(from, to);
+                case "A* Search":
+                    return routeCalculator.findRoutesAStar(from, to);
+                case "A* (ALT)":
+                    return routeCalculator.findRoutesALT(from, to);
+                case "Bidirectional A*":
+                    return routeCalculator.findRoutesBidirectionalAStar(from, to);
+                case "Contraction Hierarchy":
+                    return routeCalculator.findRoutesContractionHierarchy(from, to);
+                case "Vogel Approximation":
+                    return routeCalculator.findRoutesVogel(from, to, metric);
+                case "Northwest Corner":
+                    return routeCalculator.findRoutesNorthwestCorner(from, to);
+                case "Time-Dependent":
+                    return routeCalculator.findRoutesTimeDependent(from, to, departure);
+                default:
+                    return new ArrayList<>();
+            }
+        });
     }
 
-    private void findOptimalRoute() {
+    // Runs all algorithms concurrently, listing each one as it finishes; the map then shows
+    // the best route of every algorithm. Not cached, since the timings are the point.
+    private void compareAlgorithms() {
         String from = (String) fromComboBox.getSelectedItem();
         String to = (String) toComboBox.getSelectedItem();
-        String algorithm = (String) algorithmCombo.getSelectedItem();
-
         if (from.equals(to)) {
             JOptionPane.showMessageDialog(this, "Source and destination cannot be the same!");
             return;
         }
 
-        currentRoutes.clear();
-
-        // Generate multiple route options using different algorithms
-        switch (algorithm) {
-            case "Dijkstra's Algorithm":
-                currentRoutes = routeCalculator.findRoutesDijkstra(from, to);
-                break;
-            case "Floyd-Warshall":
-                currentRoutes = routeCalculator.findRoutesFloydWarshall(from, to);
-                break;
-            case "A* Search":
-                currentRoutes = routeCalculator.findRoutesAStar(from, to);
-                break;
-            case "Vogel Approximation":
-                currentRoutes = routeCalculator.findRoutesVogel(from, to);
-                break;
-            case "Northwest Corner":
-                currentRoutes = routeCalculator.findRoutesNorthwestCorner(from, to);
-                break;
-        }
-
-        // Apply sorting
-        sortRoutes();
-        displayResults();
-        mapPanel.repaint();
+        resultArea.setText(String.format("=== ALGORITHM COMPARISON ===%n%s -> %s%n%n", from, to));
+        queryExecutor.submit("Comparing algorithms", publish -> {
+                    RouteComparisonResult result = routeComparison.compare(from, to,
+                            outcome -> publish.accept(() -> resultArea.append(outcome + "\n")));
+                    publish.accept(() -> resultArea.append("\n" + result.summary() + "\n"));
+                    return result.bestRoutes();
+                },
+                routes -> {
+                    Rectangle dirty = mapRenderer.routeBounds(currentRoutes);
+                    currentRoutes = routes;
+                    repaintRoutes(dirty);
+                },
+                error -> JOptionPane.showMessageDialog(this, "Comparison failed: " + error.getMessage()));
     }
 
     private void searchByLandmark() {
@@ -391,25 +419,73 @@ public class UGNavigateApp extends JFrame {
         String from = (String) fromComboBox.getSelectedItem();
         String to = (String) toComboBox.getSelectedItem();
 
-        currentRoutes = routeCalculator.findRoutesThroughLandmark(from, to, landmark);
-        sortRoutes();
+        runQuery("Landmark: " + landmark,
+                new RouteCache.Key(from, to, "Landmark: " + landmark, getSortOption()),
+                () -> {
+                    List<Route> routes = routeCalculator.findRoutesThroughLandmark(from, to, landmark);
+                    // Nothing reachable at a landmark itself: offer stops close to one instead
+                    return routes.isEmpty()
+                            ? routeCalculator.findRoutesNearLandmark(from, to, landmark, LANDMARK_RADIUS)
+                            : routes;
+                });
+    }
+
+    // Answers a query from the route cache, or runs it in the background (replacing any
+    // query still in flight) and publishes the sorted result to the result area and map
+    private void runQuery(String description, RouteCache.Key key, Callable<List<Route>> query) {
+        List<Route> cached = routeCache.get(key, routeCalculator.getGraph());
+        if (cached != null) {
+            queryExecutor.cancel();
+            showRoutes(cached);
+            return;
+        }
+
+        CampusGraph graph = routeCalculator.getGraph();
+        resultArea.setText("Calculating routes (" + description + ")...\n");
+        queryExecutor.submit(description, query,
+                routes -> {
+                    List<Route> sorted = sortRoutes(routes, key.sortMode);
+                    routeCache.put(key, graph, sorted);
+                    showRoutes(sorted);
+                },
+                error -> {
+                    resultArea.setText("");
+                    JOptionPane.showMessageDialog(this, "Route calculation failed: " + error.getMessage());
+                });
+    }
+
+    private void showRoutes(List<Route> routes) {
+        Rectangle dirty = mapRenderer.routeBounds(currentRoutes);
+        currentRoutes = routes;
         displayResults();
-        mapPanel.repaint();
+        repaintRoutes(dirty);
     }
 
-    private void sortRoutes() {
-        String sortOption = (String) sortOptionCombo.getSelectedItem();
+    // Repaints only the area the old routes (dirty) and the current ones cover; the
+    // static map underneath comes from the renderer's cached layer
+    private void repaintRoutes(Rectangle dirty) {
+        Rectangle current = mapRenderer.routeBounds(currentRoutes);
+        if (dirty.isEmpty()) dirty = current;
+        else if (!current.isEmpty()) dirty = dirty.union(current);
+        if (!dirty.isEmpty()) mapPanel.repaint(dirty);
+    }
 
+    private String getSortOption() {
+        return (String) sortOptionCombo.getSelectedItem();
+    }
+
+    // The routes worth showing, best first: only the top few are ranked, so landmark
+    // searches with many candidates cost O(n log k) rather than a full sort
+    private List<Route> sortRoutes(List<Route> routes, String sortOption) {
         switch (sortOption) {
             case "Sort by Distance":
-                QuickSort.sortRoutesByDistance(currentRoutes);
-                break;
+                return RouteRanking.top(routes, RouteRanking.Key.DISTANCE, ROUTES_SHOWN);
             case "Sort by Time":
-                MergeSort.sortRoutesByTime(currentRoutes);
-                break;
+                return RouteRanking.top(routes, RouteRanking.Key.TIME, ROUTES_SHOWN);
             case "Sort by Landmarks":
-                currentRoutes.sort((r1, r2) -> Integer.compare(r2.landmarks.size(), r1.landmarks.size()));
-                break;
+                return RouteRanking.top(routes, RouteRanking.Key.LANDMARKS, ROUTES_SHOWN);
+            default:
+                return new ArrayList<>(routes);
         }
     }
 
@@ -420,7 +496,7 @@ public class UGNavigateApp extends JFrame {
         if (currentRoutes.isEmpty()) {
             sb.append("No routes found!\n");
         } else {
-            for (int i = 0; i < Math.min(currentRoutes.size(), 3); i++) {
+            for (int i = 0; i < Math.min(currentRoutes.size(), ROUTES_SHOWN); i++) {
                 Route route = currentRoutes.get(i);
                 sb.append(String.format("ROUTE %d:\n", i + 1));
                 sb.append(String.format("Path: %s\n", String.join(" → ", route.path)));
@@ -428,20 +504,56 @@ public class UGNavigateApp extends JFrame {
                 sb.append(String.format("Time: %.2f minutes\n", route.totalTime));
                 sb.append(String.format("Landmarks: %s\n",
                         route.landmarks.isEmpty() ? "None" : String.join(", ", route.landmarks)));
+                if (route.nodesExpanded > 0) {
+                    sb.append(String.format("Nodes expanded: %d\n", route.nodesExpanded));
+                }
                 sb.append("\n");
             }
         }
 
+        sb.append(routeCache).append("\n");
         resultArea.setText(sb.toString());
     }
 
+    // Closes the walkway between the selected locations, or reopens it when it is closed.
+    // The calculator repairs its cached paths; the map and cached results are redone.
+    private void toggleWalkwayClosure() {
+        String from = (String) fromComboBox.getSelectedItem();
+        String to = (String) toComboBox.getSelectedItem();
+
+        // The running query's result is about to go stale; drop it before the graph changes
+        queryExecutor.cancel();
+        boolean reopen = routeCalculator.isWalkwayClosed(from, to);
+        IncrementalPaths.Stats stats;
+        try {
+            stats = reopen ? routeCalculator.openWalkway(from, to) : routeCalculator.closeWalkway(from, to);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage());
+            return;
+        }
+
+        // The renderer draws from this list, so refill it in place
+        walkways.clear();
+        walkways.addAll(GraphFile.walkways(routeCalculator.getGraph()));
+        mapRenderer.invalidate();
+        routeCache.invalidate();
+        clearResults();
+        mapPanel.repaint();
+
+        resultArea.setText(String.format("Walkway %s - %s %s%n%nThis update: %s%nAll updates: %s%n",
+                from, to, reopen ? "reopened" : "closed", stats, routeCalculator.getUpdateStats()));
+    }
+
     private void clearResults() {
-        currentRoutes.clear();
+        queryExecutor.cancel();
+        Rectangle dirty = mapRenderer.routeBounds(currentRoutes);
+        currentRoutes = new ArrayList<>();
         resultArea.setText("");
-        mapPanel.repaint();
+        repaintRoutes(dirty);
     }
 
     public static void main(String[] args) {
+        SearchStats.install();
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getLookAndFeel());
@@ -468,6 +580,21 @@ class Location {
     }
 }
 
+// A walkable segment between two locations
+class Walkway {
+    String from;
+    String to;
+    double length;      // meters
+    double walkingTime; // minutes
+
+    public Walkway(String from, String to, double length, double walkingTime) {
+        this.from = from;
+        this.to = to;
+        this.length = length;
+        this.walkingTime = walkingTime;
+    }
+}
+
 enum LocationType {
     ACADEMIC, RESIDENTIAL, ADMINISTRATIVE, DINING, RECREATION,
     MEDICAL, BANKING, SERVICE, ENTRANCE, RESEARCH, EVENT
@@ -479,6 +606,8 @@ class Route {
     double totalTime;
     List<String> landmarks;
     String algorithm;
+    int nodesExpanded; // nodes settled by the search, when the algorithm reports it
+    CompactRoute compact; // node ids behind path, for routes found on the graph
 
     public Route(List<String> path, double distance, double time) {
         this.path = new ArrayList<>(path);
@@ -487,335 +616,665 @@ class Route {
         this.landmarks = new ArrayList<>();
         this.algorithm = "";
     }
+
+    // Wraps a compact route without copying it: path is its read-only name view, so names
+    // are only looked up when something reads them (the results panel, a serialiser)
+    public Route(CompactRoute compact) {
+        this.path = compact.names();
+        this.totalDistance = compact.distance();
+        this.totalTime = compact.time();
+        this.landmarks = new ArrayList<>(); // no backing array until a landmark is added
+        this.algorithm = "";
+        this.compact = compact;
+    }
+
+    public boolean samePath(Route other) {
+        if (compact != null && other.compact != null) return compact.samePath(other.compact);
+        return path.equals(other.path);
+    }
 }
 
 // Route Calculator Class implementing various algorithms
 class RouteCalculator {
-    private Map<String, Location> locations;
-    private Map<String, Map<String, Double>> distanceMatrix;
-    private Map<String, Map<String, Double>> timeMatrix;
+    private static final int TREE_CACHE_SIZE = 64;
+    private static final int ROUTE_OPTIONS = 3; // alternatives offered per query
+    // ALT reference nodes: the two gates, then points spread over the campus edge
+    private static final int DEFAULT_REFERENCE_COUNT = 6;
+    private static final String[] REFERENCE_SEEDS = {"Main Gate", "East Gate"};
+
+    // Replaced as a whole by the update methods below. Every query reads it once and
+    // works on that snapshot throughout, so a query racing an update searches and builds
+    // its routes on the one graph it started with.
+    private volatile Snapshot snapshot;
+    private final CampusGraph baseGraph; // as constructed, for reopening closed walkways
+    private final IncrementalPaths.Stats updateStats = new IncrementalPaths.Stats();
+    private AllPairsTable allPairs;
+    private ContractionHierarchy hierarchy;
+    private ReferenceDistances referenceDistances;
+    private int referenceCount = DEFAULT_REFERENCE_COUNT;
+    private LandmarkIndex landmarkIndex;
+    private SpatialIndex spatialIndex;
+    private TravelTimeProfiles travelTimes;
+
+    // Single-source trees by (origin, metric, direction), least recently used evicted first
+    private final Map<Integer, ShortestPathTree> treeCache =
+            new LinkedHashMap<Integer, ShortestPathTree>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, ShortestPathTree> eldest) {
+                    return size() > TREE_CACHE_SIZE;
+                }
+            };
+
+    public RouteCalculator(Map<String, Location> locations, List<Walkway> walkways) {
+        this(CampusGraph.fromWalkways(locations, walkways));
+    }
 
     public RouteCalculator(Map<String, Location> locations,
                            Map<String, Map<String, Double>> distanceMatrix,
                            Map<String, Map<String, Double>> timeMatrix) {
-        this.locations = locations;
-        this.distanceMatrix = distanceMatrix;
-        this.timeMatrix = timeMatrix;
+        this(CampusGraph.fromMatrices(locations, distanceMatrix, timeMatrix));
     }
 
-    public List<Route> findRoutesDijkstra(String from, String to) {
-        // Dijkstra's shortest path implementation
-        Map<String, Double> distances = new HashMap<>();
-        Map<String, String> previous = new HashMap<>();
-        PriorityQueue<String> pq = new PriorityQueue<>(
-                Comparator.comparing(distances::get));
-
-        // Initialize distances
-        for (String location : locations.keySet()) {
-            distances.put(location, location.equals(from) ? 0.0 : Double.MAX_VALUE);
-        }
-        pq.add(from);
-
-        while (!pq.isEmpty()) {
-            String current = pq.poll();
-
-            if (current.equals(to)) break;
-
-            for (String neighbor : distanceMatrix.get(current).keySet()) {
-                double newDist = distances.get(current) + distanceMatrix.get(current).get(neighbor);
-                if (newDist < distances.get(neighbor)) {
-                    distances.put(neighbor, newDist);
-                    previous.put(neighbor, current);
-                    pq.remove(neighbor);
-                    pq.add(neighbor);
-                }
-            }
+    public RouteCalculator(CampusGraph graph) {
+        this(graph, null);
+    }
+
+    // allPairs, when not null, must be the distance table of graph, e.g. from a GraphFile
+    public RouteCalculator(CampusGraph graph, AllPairsTable allPairs) {
+        this.snapshot = new Snapshot(graph);
+        this.baseGraph = graph;
+        this.allPairs = allPairs;
+    }
+
+    // A graph and the engines that search it
+    private static final class Snapshot {
+        final CampusGraph graph;
+        final DijkstraEngine dijkstra;
+        final AStarEngine astar;
+
+        Snapshot(CampusGraph graph) {
+            this.graph = graph;
+            this.dijkstra = new DijkstraEngine(graph);
+            this.astar = new AStarEngine(graph);
         }
+    }
 
-        // Reconstruct path
-        List<String> path = new ArrayList<>();
-        String current = to;
-        while (current != null) {
-            path.add(0, current);
-            current = previous.get(current);
+    public CampusGraph getGraph() {
+        return snapshot.graph;
+    }
+
+    // Computes the all-pairs table on first use; walkway updates repair it in place of
+    // a recomputation
+    public synchronized AllPairsTable getAllPairsTable() {
+        if (allPairs == null) {
+            allPairs = AllPairsTable.compute(snapshot.graph, CampusGraph.Metric.DISTANCE);
         }
+        return allPairs;
+    }
 
-        if (path.get(0).equals(from)) {
-            double totalDistance = distances.get(to);
-            double totalTime = calculatePathTime(path);
-            Route route = new Route(path, totalDistance, totalTime);
-            route.algorithm = "Dijkstra's Algorithm";
-            return Arrays.asList(route);
+    // True once the all-pairs table exists, so getAllPairsTable returns without computing
+    public synchronized boolean hasAllPairsTable() {
+        return allPairs != null;
+    }
+
+    // Builds the contraction hierarchy on first use, and again after walkway updates
+    public synchronized ContractionHierarchy getContractionHierarchy() {
+        if (hierarchy == null) {
+            hierarchy = ContractionHierarchy.build(snapshot.graph, CampusGraph.Metric.DISTANCE);
         }
+        return hierarchy;
+    }
 
-        return new ArrayList<>();
+    // Sets the length and walking time of the walkway between a and b, both directions,
+    // adding it if the locations were not connected. The searches need finite,
+    // non-negative weights, and NaN means "no edge" to applyUpdate.
+    public IncrementalPaths.Stats updateWalkway(String a, String b, double distance, double time) {
+        int u = requireId(a);
+        int v = requireId(b);
+        if (!(distance >= 0 && distance < Double.POSITIVE_INFINITY)
+                || !(time >= 0 && time < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("Walkway length and time must be finite and non-negative, got "
+                    + distance + " m and " + time + " min");
+        }
+        return applyUpdate(new int[]{u, v, v, u}, new double[]{distance, time, distance, time});
     }
 
-    public List<Route> findRoutesFloydWarshall(String from, String to) {
-        // Floyd-Warshall implementation for all-pairs shortest path
-        Map<String, Integer> locationIndex = new HashMap<>();
-        List<String> indexToLocation = new ArrayList<>(locations.keySet());
-
-        for (int i = 0; i < indexToLocation.size(); i++) {
-            locationIndex.put(indexToLocation.get(i), i);
-        }
-
-        int n = locations.size();
-        double[][] dist = new double[n][n];
-        int[][] next = new int[n][n];
-
-        // Initialize distance matrix
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                if (i == j) {
-                    dist[i][j] = 0;
-                } else {
-                    String loc1 = indexToLocation.get(i);
-                    String loc2 = indexToLocation.get(j);
-                    dist[i][j] = distanceMatrix.get(loc1).get(loc2);
-                }
-                next[i][j] = j;
-            }
+    // Removes the walkway between a and b in both directions, e.g. for a closure
+    public IncrementalPaths.Stats closeWalkway(String a, String b) {
+        int u = requireId(a);
+        int v = requireId(b);
+        CampusGraph current = snapshot.graph;
+        if (current.findEdge(u, v) < 0 && current.findEdge(v, u) < 0) {
+            throw new IllegalArgumentException("No open walkway between " + a + " and " + b);
+        }
+        return applyUpdate(new int[]{u, v, v, u}, null);
+    }
+
+    // True when a and b were connected originally and no longer are in either direction
+    public boolean isWalkwayClosed(String a, String b) {
+        int u = requireId(a);
+        int v = requireId(b);
+        CampusGraph current = snapshot.graph;
+        return (baseGraph.findEdge(u, v) >= 0 || baseGraph.findEdge(v, u) >= 0)
+                && current.findEdge(u, v) < 0 && current.findEdge(v, u) < 0;
+    }
+
+    // Restores the walkway between a and b to its original length and time
+    public IncrementalPaths.Stats openWalkway(String a, String b) {
+        int u = requireId(a);
+        int v = requireId(b);
+        int forward = baseGraph.findEdge(u, v);
+        int backward = baseGraph.findEdge(v, u);
+        if (forward < 0 && backward < 0) {
+            throw new IllegalArgumentException("No walkway between " + a + " and " + b);
         }
 
-        // Floyd-Warshall algorithm
-        for (int k = 0; k < n; k++) {
-            for (int i = 0; i < n; i++) {
-                for (int j = 0; j < n; j++) {
-                    if (dist[i][k] + dist[k][j] < dist[i][j]) {
-                        dist[i][j] = dist[i][k] + dist[k][j];
-                        next[i][j] = next[i][k];
-                    }
+        // Restore whichever directions existed originally, remove any that did not
+        int[] edges = {u, v, v, u};
+        double[] weights = new double[4];
+        weights[0] = forward < 0 ? Double.NaN : baseGraph.distance(forward);
+        weights[1] = forward < 0 ? Double.NaN : baseGraph.time(forward);
+        weights[2] = backward < 0 ? Double.NaN : baseGraph.distance(backward);
+        weights[3] = backward < 0 ? Double.NaN : baseGraph.time(backward);
+        return applyUpdate(edges, weights);
+    }
+
+    // Cumulative work of all updates against full recomputation
+    public IncrementalPaths.Stats getUpdateStats() {
+        synchronized (this) {
+            IncrementalPaths.Stats copy = new IncrementalPaths.Stats();
+            copy.add(updateStats);
+            return copy;
+        }
+    }
+
+    private int requireId(String name) {
+        int id = snapshot.graph.id(name);
+        if (id < 0) throw new IllegalArgumentException("Unknown location: " + name);
+        return id;
+    }
+
+    // Applies directed edge changes one at a time: edges holds (from, to) pairs and weights
+    // the matching (distance, time) pairs, NaN or a null array meaning no edge. Cached trees
+    // and the all-pairs table are repaired after each change; the hierarchy and the ALT
+    // distances depend on every weight, so they are dropped and rebuilt on next use.
+    private synchronized IncrementalPaths.Stats applyUpdate(int[] edges, double[] weights) {
+        IncrementalPaths.Stats stats = new IncrementalPaths.Stats();
+        stats.updates = 1;
+
+        for (int i = 0; i < edges.length; i += 2) {
+            int from = edges[i];
+            int to = edges[i + 1];
+            double distance = weights == null ? Double.NaN : weights[i];
+            double time = weights == null ? Double.NaN : weights[i + 1];
+
+            CampusGraph current = snapshot.graph;
+            int e = current.findEdge(from, to);
+            double oldDistance = e < 0 ? Double.POSITIVE_INFINITY : current.distance(e);
+            double oldTime = e < 0 ? Double.POSITIVE_INFINITY : current.time(e);
+            double newDistance = Double.isNaN(distance) ? Double.POSITIVE_INFINITY : distance;
+            double newTime = Double.isNaN(time) ? Double.POSITIVE_INFINITY : time;
+            if (oldDistance == newDistance && oldTime == newTime) continue;
+
+            CampusGraph next = Double.isNaN(distance)
+                    ? current.withoutEdge(from, to)
+                    : current.withEdge(from, to, distance, time);
+
+            if (allPairs != null && oldDistance != newDistance) {
+                allPairs = IncrementalPaths.repair(allPairs, next, from, to, oldDistance, newDistance, stats);
+            }
+            hierarchy = null;
+            referenceDistances = null;
+
+            synchronized (treeCache) {
+                for (Map.Entry<Integer, ShortestPathTree> entry : treeCache.entrySet()) {
+                    int key = entry.getKey();
+                    boolean reverse = (key & 1) == 1;
+                    CampusGraph.Metric metric = CampusGraph.Metric.values()[(key >> 1) & 1];
+                    double oldWeight = metric == CampusGraph.Metric.TIME ? oldTime : oldDistance;
+                    double newWeight = metric == CampusGraph.Metric.TIME ? newTime : newDistance;
+                    if (oldWeight == newWeight) continue;
+
+                    // A reverse tree sees the edge as to -> from in the reversed graph
+                    entry.setValue(reverse
+                            ? IncrementalPaths.repair(entry.getValue(), next.reversed(), to, from,
+                                    oldWeight, newWeight, metric, stats)
+                            : IncrementalPaths.repair(entry.getValue(), next, from, to,
+                                    oldWeight, newWeight, metric, stats));
                 }
+                // Swapped under the cache lock, so cachedTree never stores a tree of the old graph
+                snapshot = new Snapshot(next);
             }
         }
 
-        // Reconstruct path
-        int fromIndex = locationIndex.get(from);
-        int toIndex = locationIndex.get(to);
-        List<String> path = new ArrayList<>();
+        updateStats.add(stats);
+        return stats;
+    }
 
-        if (dist[fromIndex][toIndex] == Double.MAX_VALUE) {
-            return new ArrayList<>();
+    // Congestion profiles of the current graph, rebuilt after walkway updates
+    public synchronized TravelTimeProfiles getTravelTimeProfiles() {
+        if (travelTimes == null || travelTimes.graph() != snapshot.graph) {
+            travelTimes = TravelTimeProfiles.build(snapshot.graph);
         }
+        return travelTimes;
+    }
 
-        int current = fromIndex;
-        while (current != toIndex) {
-            path.add(indexToLocation.get(current));
-            current = next[current][toIndex];
+    public synchronized LandmarkIndex getLandmarkIndex() {
+        if (landmarkIndex == null) {
+            landmarkIndex = LandmarkIndex.build(snapshot.graph);
         }
-        path.add(to);
+        return landmarkIndex;
+    }
 
-        double totalDistance = dist[fromIndex][toIndex];
-        double totalTime = calculatePathTime(path);
-        Route route = new Route(path, totalDistance, totalTime);
-        route.algorithm = "Floyd-Warshall";
+    public synchronized SpatialIndex getSpatialIndex() {
+        if (spatialIndex == null) {
+            spatialIndex = SpatialIndex.build(snapshot.graph);
+        }
+        return spatialIndex;
+    }
 
-        return Arrays.asList(route);
+    // The location closest to map point (x, y), or null if none lies within maxDistance
+    public String locationAt(int x, int y, double maxDistance) {
+        CampusGraph graph = snapshot.graph;
+        int node = getSpatialIndex().nearest(x, y);
+        if (node < 0 || Math.hypot(graph.x(node) - x, graph.y(node) - y) > maxDistance) {
+            return null;
+        }
+        return graph.name(node);
     }
 
-    public List<Route> findRoutesAStar(String from, String to) {
-        // A* Search implementation with heuristic
-        Map<String, Double> gScore = new HashMap<>();
-        Map<String, Double> fScore = new HashMap<>();
-        Map<String, String> previous = new HashMap<>();
-        PriorityQueue<String> openSet = new PriorityQueue<>(
-                Comparator.comparing(fScore::get));
-
-        for (String location : locations.keySet()) {
-            gScore.put(location, Double.MAX_VALUE);
-            fScore.put(location, Double.MAX_VALUE);
-        }
-
-        gScore.put(from, 0.0);
-        fScore.put(from, heuristic(from, to));
-        openSet.add(from);
-
-        while (!openSet.isEmpty()) {
-            String current = openSet.poll();
-
-            if (current.equals(to)) {
-                List<String> path = reconstructPath(previous, current);
-                double totalDistance = gScore.get(to);
-                double totalTime = calculatePathTime(path);
-                Route route = new Route(path, totalDistance, totalTime);
-                route.algorithm = "A* Search";
-                return Arrays.asList(route);
+    // More references tighten the ALT bounds at the cost of memory (two doubles per node
+    // per reference) and of a longer row to scan for every settled node
+    public synchronized void setReferenceCount(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Reference count must be at least 1: " + count);
+        }
+        if (count != referenceCount) {
+            referenceCount = count;
+            referenceDistances = null;
+        }
+    }
+
+    public synchronized int getReferenceCount() {
+        return referenceCount;
+    }
+
+    public synchronized ReferenceDistances getReferenceDistances() {
+        if (referenceDistances == null) {
+            CampusGraph graph = snapshot.graph;
+            int[] seeds = new int[REFERENCE_SEEDS.length];
+            for (int i = 0; i < seeds.length; i++) {
+                seeds[i] = graph.id(REFERENCE_SEEDS[i]);
             }
+            referenceDistances = ReferenceDistances.compute(graph, CampusGraph.Metric.DISTANCE,
+                    referenceCount, seeds);
+        }
+        return referenceDistances;
+    }
 
-            for (String neighbor : distanceMatrix.get(current).keySet()) {
-                double tentativeGScore = gScore.get(current) + distanceMatrix.get(current).get(neighbor);
+    // Shortest-path tree from origin to every location, computed once per origin and metric
+    // and cached; one tree answers the routes to all destinations of that origin
+    public ShortestPathTree getShortestPathTree(String origin, CampusGraph.Metric metric) {
+        return cachedTree(snapshot, requireId(origin), metric, false);
+    }
 
-                if (tentativeGScore < gScore.get(neighbor)) {
-                    previous.put(neighbor, current);
-                    gScore.put(neighbor, tentativeGScore);
-                    fScore.put(neighbor, gScore.get(neighbor) + heuristic(neighbor, to));
+    public ShortestPathTree getShortestPathTree(String origin) {
+        return getShortestPathTree(origin, CampusGraph.Metric.DISTANCE);
+    }
 
-                    if (!openSet.contains(neighbor)) {
-                        openSet.add(neighbor);
-                    }
-                }
+    // Extracts the route to destination from a tree returned by getShortestPathTree, on
+    // the graph the tree was searched on
+    public Route extractRoute(ShortestPathTree tree, String destination) {
+        int[] path = tree.pathTo(requireId(destination));
+        if (path == null) return null;
+
+        Route route = toRoute(tree.graph, path);
+        route.algorithm = "Dijkstra's Algorithm";
+        return route;
+    }
+
+    // The k locations of the given type closest to origin, nearest first
+    public List<Route> findNearest(String origin, LocationType type, int k) {
+        Snapshot current = snapshot;
+        CampusGraph graph = current.graph;
+        int source = requireId(origin);
+        ShortestPathTree tree = cachedTree(current, source, CampusGraph.Metric.DISTANCE, false);
+
+        List<Integer> candidates = new ArrayList<>();
+        for (int node = 0; node < graph.size(); node++) {
+            if (node != source && graph.type(node) == type && tree.reaches(node)) {
+                candidates.add(node);
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(tree::distanceTo));
+
+        List<Route> routes = new ArrayList<>();
+        for (int node : candidates.subList(0, Math.min(k, candidates.size()))) {
+            Route route = toRoute(graph, tree.pathTo(node));
+            route.algorithm = "Nearest " + type;
+            routes.add(route);
+        }
+        return routes;
+    }
+
+    // Trees over the reversed graph hold distances *to* the root. The cache follows the
+    // current graph, so a query on an older snapshot searches that snapshot instead.
+    private ShortestPathTree cachedTree(Snapshot current, int root, CampusGraph.Metric metric, boolean reverse) {
+        int key = (root * 2 + metric.ordinal()) * 2 + (reverse ? 1 : 0);
+        ShortestPathTree tree = null;
+        synchronized (treeCache) {
+            if (snapshot == current) tree = treeCache.get(key);
+        }
+        if (tree == null) {
+            CampusGraph graph = current.graph;
+            tree = new DijkstraEngine(reverse ? graph.reversed() : graph).search(root, metric);
+            synchronized (treeCache) {
+                // A tree of a graph replaced meanwhile would miss the update's repair
+                if (snapshot == current) treeCache.put(key, tree);
             }
         }
+        return tree;
+    }
+
+    public List<Route> findRoutesDijkstra(String from, String to) {
+        return findRoutesDijkstra(from, to, CampusGraph.Metric.DISTANCE);
+    }
+
+    public List<Route> findRoutesDijkstra(String from, String to, CampusGraph.Metric metric) {
+        // Dijkstra's shortest path on the indexed-heap engine
+        Snapshot current = snapshot;
+        CampusGraph graph = current.graph;
+        int source = requireId(from);
+        int target = requireId(to);
+        ShortestPathTree tree = current.dijkstra.search(source, target, metric);
+
+        CompactRoute path = CompactRoute.fromTree(graph, tree, target);
+        if (path != null) {
+            Route route = new Route(path);
+            route.algorithm = "Dijkstra's Algorithm";
+            return Arrays.asList(route);
+        }
 
         return new ArrayList<>();
     }
 
-    public List<Route> findRoutesVogel(String from, String to) {
-        // Simplified Vogel Approximation Method adaptation for routing
-        List<Route> routes = new ArrayList<>();
+    public List<Route> findRoutesFloydWarshall(String from, String to) {
+        // Floyd-Warshall: look the path up in the precomputed all-pairs table
+        int fromIndex = requireId(from);
+        int toIndex = requireId(to);
+        CampusGraph graph;
+        AllPairsTable table;
+        synchronized (this) {
+            // Updates repair the table under this lock, so it matches the graph read here
+            graph = snapshot.graph;
+            table = getAllPairsTable();
+        }
+        int[] path = table.path(fromIndex, toIndex);
 
-        // Generate alternative paths using penalty-based selection
-        Set<String> visited = new HashSet<>();
-        List<String> currentPath = new ArrayList<>();
-        currentPath.add(from);
+        if (path == null) {
+            return new ArrayList<>();
+        }
 
-        vogelRecursive(from, to, visited, currentPath, routes);
+        Route route = toRoute(graph, path);
+        route.algorithm = "Floyd-Warshall";
 
-        return routes.isEmpty() ? findRoutesDijkstra(from, to) : routes;
+        return Arrays.asList(route);
     }
 
-    private void vogelRecursive(String current, String target, Set<String> visited,
-                                List<String> path, List<Route> routes) {
-        if (current.equals(target)) {
-            double distance = calculatePathDistance(path);
-            double time = calculatePathTime(path);
-            Route route = new Route(path, distance, time);
-            route.algorithm = "Vogel Approximation";
-            routes.add(route);
-            return;
+    public List<Route> findRoutesAStar(String from, String to) {
+        return findRoutesAStar(from, to, CampusGraph.Metric.DISTANCE);
+    }
+
+    public List<Route> findRoutesAStar(String from, String to, CampusGraph.Metric metric) {
+        // A* Search with a unit-consistent straight-line heuristic
+        Snapshot current = snapshot;
+        CampusGraph graph = current.graph;
+        SearchResult result = current.astar.search(requireId(from), requireId(to), metric);
+        return toRoutes(graph, result, "A* Search");
+    }
+
+    public List<Route> findRoutesALT(String from, String to) {
+        // A* with triangle-inequality bounds from the precomputed reference distances
+        int source = requireId(from);
+        int target = requireId(to);
+        Snapshot current;
+        ReferenceDistances references;
+        synchronized (this) {
+            // Dropped by every update under this lock, so they bound the graph read here
+            current = snapshot;
+            references = getReferenceDistances();
         }
+        CampusGraph graph = current.graph;
+        SearchResult result = current.astar.search(source, target, CampusGraph.Metric.DISTANCE,
+                references.toTarget(target));
+        return toRoutes(graph, result, "A* (ALT)");
+    }
 
-        if (routes.size() >= 3) return; // Limit to 3 routes
+    public List<Route> findRoutesBidirectionalAStar(String from, String to) {
+        return findRoutesBidirectionalAStar(from, to, CampusGraph.Metric.DISTANCE);
+    }
 
-        visited.add(current);
+    public List<Route> findRoutesBidirectionalAStar(String from, String to, CampusGraph.Metric metric) {
+        // A* from both ends at once, meeting in the middle
+        Snapshot current = snapshot;
+        CampusGraph graph = current.graph;
+        SearchResult result = current.astar.searchBidirectional(requireId(from), requireId(to), metric);
+        return toRoutes(graph, result, "Bidirectional A*");
+    }
 
-        // Calculate penalties for each unvisited neighbor
-        List<String> neighbors = new ArrayList<>();
-        for (String neighbor : distanceMatrix.get(current).keySet()) {
-            if (!visited.contains(neighbor)) {
-                neighbors.add(neighbor);
-            }
+    public List<Route> findRoutesContractionHierarchy(String from, String to) {
+        // Upward searches over the precomputed hierarchy, shortcuts unpacked afterwards
+        int source = requireId(from);
+        int target = requireId(to);
+        CampusGraph graph;
+        ContractionHierarchy hierarchy;
+        synchronized (this) {
+            // Dropped by every update under this lock, so it was built from the graph read here
+            graph = snapshot.graph;
+            hierarchy = getContractionHierarchy();
+        }
+        SearchResult result = hierarchy.query(source, target);
+        return toRoutes(graph, result, "Contraction Hierarchy");
+    }
+
+    // Quickest walk leaving at minute-of-day departure, routed around the congestion
+    // expected along the way rather than by static walking times
+    public List<Route> findRoutesTimeDependent(String from, String to, double departure) {
+        int source = requireId(from);
+        int target = requireId(to);
+        // The profiles belong to one graph, which the search and the route both use
+        TravelTimeProfiles profiles = getTravelTimeProfiles();
+        CampusGraph graph = profiles.graph();
+        TimeDependentSearch search = new TimeDependentSearch(profiles);
+        SearchResult result = search.search(source, target, departure);
+        if (!result.found()) {
+            return new ArrayList<>();
+        }
+
+        // The congested arrival times, not the static ones, so totalTime and compact agree
+        Route route = new Route(CompactRoute.of(graph, result.path, search.arrivalTimes(result.path, departure)));
+        route.algorithm = String.format("Time-Dependent (depart %s, arrive %s)",
+                TravelTimeProfiles.formatMinute(departure), TravelTimeProfiles.formatMinute(departure + result.cost));
+        route.nodesExpanded = result.nodesExpanded;
+        return Arrays.asList(route);
+    }
+
+    private List<Route> toRoutes(CampusGraph graph, SearchResult result, String algorithm) {
+        if (!result.found()) {
+            return new ArrayList<>();
         }
 
-        // Sort neighbors by distance + heuristic
-        neighbors.sort((a, b) -> Double.compare(
-                distanceMatrix.get(current).get(a) + heuristic(a, target),
-                distanceMatrix.get(current).get(b) + heuristic(b, target)
-        ));
+        Route route = toRoute(graph, result.path);
+        route.algorithm = algorithm;
+        route.nodesExpanded = result.nodesExpanded;
+        return Arrays.asList(route);
+    }
+
+    public List<Route> findRoutesVogel(String from, String to) {
+        return findRoutesVogel(from, to, CampusGraph.Metric.DISTANCE);
+    }
 
-        // Explore best neighbors
-        for (String neighbor : neighbors.subList(0, Math.min(2, neighbors.size()))) {
-            path.add(neighbor);
-            vogelRecursive(neighbor, target, new HashSet<>(visited),
-                    new ArrayList<>(path), routes);
-            path.remove(path.size() - 1);
+    // Alternative routes ranked by distance or time: the k shortest loopless paths (Yen)
+    public List<Route> findRoutesVogel(String from, String to, CampusGraph.Metric metric) {
+        Snapshot current = snapshot;
+        CampusGraph graph = current.graph;
+        int target = requireId(to);
+        List<SearchResult> paths = KShortestPaths.find(graph, requireId(from), target, ROUTE_OPTIONS,
+                metric, cachedTree(current, target, metric, true));
+
+        List<Route> routes = new ArrayList<>(paths.size());
+        for (SearchResult path : paths) {
+            Route route = toRoute(graph, path.path);
+            route.algorithm = "Vogel Approximation";
+            routes.add(route);
         }
+        return routes;
     }
 
     public List<Route> findRoutesNorthwestCorner(String from, String to) {
         // Adapted Northwest Corner Method for route finding
-        List<Route> routes = new ArrayList<>();
+        Snapshot current = snapshot;
+        CampusGraph graph = current.graph;
+        int source = requireId(from);
+        int target = requireId(to);
+        ShortestPathTree fromSource = cachedTree(current, source, CampusGraph.Metric.DISTANCE, false);
+        ShortestPathTree toTarget = cachedTree(current, target, CampusGraph.Metric.DISTANCE, true);
+
+        if (!fromSource.reaches(target)) {
+            return new ArrayList<>();
+        }
 
         // Direct route (northwest approach - most direct)
-        List<String> directPath = Arrays.asList(from, to);
-        double directDistance = distanceMatrix.get(from).get(to);
-        double directTime = timeMatrix.get(from).get(to);
-        Route directRoute = new Route(directPath, directDistance, directTime);
+        List<Route> routes = new ArrayList<>();
+        Route directRoute = toRoute(graph, fromSource.pathTo(target));
         directRoute.algorithm = "Northwest Corner (Direct)";
         routes.add(directRoute);
 
         // Alternative routes through intermediate points
-        Location fromLoc = locations.get(from);
-        Location toLoc = locations.get(to);
+        int minX = Math.min(graph.x(source), graph.x(target));
+        int maxX = Math.max(graph.x(source), graph.x(target));
+        int minY = Math.min(graph.y(source), graph.y(target));
+        int maxY = Math.max(graph.y(source), graph.y(target));
 
         // Find intermediate points that form a "northwest corner" pattern
-        for (String intermediate : locations.keySet()) {
-            if (!intermediate.equals(from) && !intermediate.equals(to)) {
-                Location intLoc = locations.get(intermediate);
+        for (int intermediate = 0; intermediate < graph.size(); intermediate++) {
+            if (intermediate != source && intermediate != target) {
+                int x = graph.x(intermediate);
+                int y = graph.y(intermediate);
 
                 // Check if intermediate point forms northwest pattern
-                if ((intLoc.x <= Math.max(fromLoc.x, toLoc.x) && intLoc.x >= Math.min(fromLoc.x, toLoc.x)) ||
-                        (intLoc.y <= Math.max(fromLoc.y, toLoc.y) && intLoc.y >= Math.min(fromLoc.y, toLoc.y))) {
+                if ((x <= maxX && x >= minX) || (y <= maxY && y >= minY)) {
+                    int[] altPath = joinLegs(fromSource, toTarget, intermediate);
+                    if (altPath == null) continue;
 
-                    List<String> altPath = Arrays.asList(from, intermediate, to);
-                    double altDistance = distanceMatrix.get(from).get(intermediate) +
-                            distanceMatrix.get(intermediate).get(to);
-                    double altTime = timeMatrix.get(from).get(intermediate) +
-                            timeMatrix.get(intermediate).get(to);
-
-                    Route altRoute = new Route(altPath, altDistance, altTime);
-                    altRoute.algorithm = "Northwest Corner (via " + intermediate + ")";
+                    Route altRoute = toRoute(graph, altPath);
+                    altRoute.algorithm = "Northwest Corner (via " + graph.name(intermediate) + ")";
                     routes.add(altRoute);
                 }
             }
         }
 
-        // Sort and return top 3 routes
+        // Sort and return top 3 distinct routes
         routes.sort(Comparator.comparing(r -> r.totalDistance));
-        return routes.subList(0, Math.min(3, routes.size()));
+        return distinctRoutes(routes, 3);
     }
 
     public List<Route> findRoutesThroughLandmark(String from, String to, String landmarkType) {
         List<Route> routes = new ArrayList<>();
-
-        // Find locations that match the landmark type
-        List<String> matchingLandmarks = new ArrayList<>();
-        for (Map.Entry<String, Location> entry : locations.entrySet()) {
-            String locationName = entry.getKey().toLowerCase();
-            if (locationName.contains(landmarkType)) {
-                matchingLandmarks.add(entry.getKey());
+        Snapshot current = snapshot;
+        CampusGraph graph = current.graph;
+        int source = requireId(from);
+        int target = requireId(to);
+        ShortestPathTree fromSource = null;
+        ShortestPathTree toTarget = null;
+
+        // Locations whose name contains the query or whose type it names, from the index
+        for (int landmark : getLandmarkIndex().find(landmarkType)) {
+            if (landmark == source || landmark == target) continue;
+
+            if (fromSource == null) {
+                fromSource = cachedTree(current, source, CampusGraph.Metric.DISTANCE, false);
+                toTarget = cachedTree(current, target, CampusGraph.Metric.DISTANCE, true);
             }
+
+            // Generate a route through each matching landmark
+            int[] path = joinLegs(fromSource, toTarget, landmark);
+            if (path == null) continue;
+
+            Route route = toRoute(graph, path);
+            route.landmarks.add(graph.name(landmark));
+            routes.add(route);
         }
 
-        // Generate routes through each matching landmark
-        for (String landmark : matchingLandmarks) {
-            if (!landmark.equals(from) && !landmark.equals(to)) {
-                List<String> path = Arrays.asList(from, landmark, to);
-                double distance = distanceMatrix.get(from).get(landmark) +
-                        distanceMatrix.get(landmark).get(to);
-                double time = timeMatrix.get(from).get(landmark) +
-                        timeMatrix.get(landmark).get(to);
+        return routes;
+    }
 
-                Route route = new Route(path, distance, time);
-                route.landmarks.add(landmark);
+    // Routes via locations within radius (map units) of a matching landmark, for when
+    // stopping close to the landmark will do. Returns the shortest distinct routes.
+    public List<Route> findRoutesNearLandmark(String from, String to, String landmarkType, double radius) {
+        List<Route> routes = new ArrayList<>();
+        Snapshot current = snapshot;
+        CampusGraph graph = current.graph;
+        int source = requireId(from);
+        int target = requireId(to);
+        ShortestPathTree fromSource = cachedTree(current, source, CampusGraph.Metric.DISTANCE, false);
+        ShortestPathTree toTarget = cachedTree(current, target, CampusGraph.Metric.DISTANCE, true);
+
+        boolean[] used = new boolean[graph.size()];
+        for (int landmark : getLandmarkIndex().find(landmarkType)) {
+            for (int nearby : getSpatialIndex().withinRadius(graph.x(landmark), graph.y(landmark), radius)) {
+                if (nearby == source || nearby == target || used[nearby]) continue;
+                used[nearby] = true;
+
+                int[] path = joinLegs(fromSource, toTarget, nearby);
+                if (path == null) continue;
+
+                Route route = toRoute(graph, path);
+                route.landmarks.add(graph.name(landmark));
+                route.algorithm = "Near Landmark";
                 routes.add(route);
             }
         }
 
-        return routes;
+        // Neighbouring via locations often produce the same walk
+        routes.sort(Comparator.comparing(r -> r.totalDistance));
+        return distinctRoutes(routes, ROUTE_OPTIONS);
     }
 
-    private double heuristic(String from, String to) {
-        // Euclidean distance heuristic for A*
-        Location fromLoc = locations.get(from);
-        Location toLoc = locations.get(to);
-        return Math.sqrt(Math.pow(toLoc.x - fromLoc.x, 2) + Math.pow(toLoc.y - fromLoc.y, 2));
-    }
+    // Shortest path source -> via -> target, from a forward tree rooted at the source and a
+    // tree over the reversed graph rooted at the target; null if either leg is unreachable
+    private int[] joinLegs(ShortestPathTree fromSource, ShortestPathTree toTarget, int via) {
+        if (!fromSource.reaches(via) || !toTarget.reaches(via)) return null;
 
-    private List<String> reconstructPath(Map<String, String> previous, String current) {
-        List<String> path = new ArrayList<>();
-        while (current != null) {
-            path.add(0, current);
-            current = previous.get(current);
+        int[] firstLeg = fromSource.pathTo(via);
+        int[] secondLeg = toTarget.pathTo(via); // target ... via, walked backwards below
+        int[] path = Arrays.copyOf(firstLeg, firstLeg.length + secondLeg.length - 1);
+        for (int i = 1; i < secondLeg.length; i++) {
+            path[firstLeg.length - 1 + i] = secondLeg[secondLeg.length - 1 - i];
         }
         return path;
     }
 
-    private double calculatePathDistance(List<String> path) {
-        double totalDistance = 0;
-        for (int i = 0; i < path.size() - 1; i++) {
-            totalDistance += distanceMatrix.get(path.get(i)).get(path.get(i + 1));
+    // Keeps the first limit routes whose paths differ; an intermediate lying on the
+    // shortest path would otherwise repeat the direct route
+    private static List<Route> distinctRoutes(List<Route> sortedRoutes, int limit) {
+        List<Route> result = new ArrayList<>();
+        for (Route route : sortedRoutes) {
+            boolean duplicate = false;
+            for (Route kept : result) {
+                if (kept.samePath(route)) {
+                    duplicate = true;
+                    break;
+                }
+            }
+            if (!duplicate) result.add(route);
+            if (result.size() == limit) break;
         }
-        return totalDistance;
+        return result;
     }
 
-    private double calculatePathTime(List<String> path) {
-        double totalTime = 0;
-        for (int i = 0; i < path.size() - 1; i++) {
-            totalTime += timeMatrix.get(path.get(i)).get(path.get(i + 1));
-        }
-        return totalTime;
+    private static Route toRoute(CampusGraph graph, int[] path) {
+        return new Route(CompactRoute.of(graph, path));
     }
 }
 
@@ -826,76 +1285,32 @@ class PathfindingAlgorithms {
         public static List<String> findCriticalPath(Map<String, Location> locations,
                                                     Map<String, Map<String, Double>> timeMatrix,
                                                     String start, String end) {
-            // Simplified Critical Path Method implementation
-            Map<String, Double> earliestStart = new HashMap<>();
-            Map<String, Double> latestStart = new HashMap<>();
-            Map<String, String> predecessor = new HashMap<>();
-
-            // Initialize
-            for (String location : locations.keySet()) {
-                earliestStart.put(location, location.equals(start) ? 0.0 : Double.MAX_VALUE);
-                latestStart.put(location, Double.MAX_VALUE);
-            }
+            CampusGraph graph = CampusGraph.fromMatrices(locations, timeMatrix, timeMatrix);
+            return findCriticalPath(graph, start, end);
+        }
 
-            // Forward pass - calculate earliest start times
-            PriorityQueue<String> queue = new PriorityQueue<>(
-                    Comparator.comparing(earliestStart::get));
-            queue.add(start);
-
-            while (!queue.isEmpty()) {
-                String current = queue.poll();
-
-                for (String next : timeMatrix.get(current).keySet()) {
-                    double newTime = earliestStart.get(current) + timeMatrix.get(current).get(next);
-                    if (newTime < earliestStart.get(next)) {
-                        earliestStart.put(next, newTime);
-                        predecessor.put(next, current);
-                        queue.remove(next);
-                        queue.add(next);
-                    }
-                }
-            }
+        public static List<String> findCriticalPath(CampusGraph graph, String start, String end) {
+            // Simplified Critical Path Method: forward pass computes earliest start times
+            ShortestPathTree earliestStart = new DijkstraEngine(graph)
+                    .search(graph.id(start), CampusGraph.Metric.TIME);
 
             // Reconstruct critical path
-            List<String> criticalPath = new ArrayList<>();
-            String current = end;
-            while (current != null) {
-                criticalPath.add(0, current);
-                current = predecessor.get(current);
+            int target = graph.id(end);
+            if (!earliestStart.reaches(target)) {
+                return new ArrayList<>(Collections.singletonList(end));
             }
-
-            return criticalPath;
+            return graph.names(earliestStart.pathTo(target));
         }
     }
 
-    // Divide and Conquer approach for route optimization
+    // Divide and Conquer approach for route optimization: routes by distance, shortest
+    // first, as a new list. RouteRanking sorts on primitive keys, splitting the work over
+    // the fork/join pool once the set is large.
     public static class DivideAndConquerRouter {
         public static List<Route> optimizeRoutes(List<Route> routes) {
-            if (routes.size() <= 1) return routes;
-
-            int mid = routes.size() / 2;
-            List<Route> left = optimizeRoutes(routes.subList(0, mid));
-            List<Route> right = optimizeRoutes(routes.subList(mid, routes.size()));
-
-            return mergeOptimalRoutes(left, right);
-        }
-
-        private static List<Route> mergeOptimalRoutes(List<Route> left, List<Route> right) {
-            List<Route> merged = new ArrayList<>();
-            int i = 0, j = 0;
-
-            while (i < left.size() && j < right.size()) {
-                if (left.get(i).totalDistance <= right.get(j).totalDistance) {
-                    merged.add(left.get(i++));
-                } else {
-                    merged.add(right.get(j++));
-                }
-            }
-
-            while (i < left.size()) merged.add(left.get(i++));
-            while (j < right.size()) merged.add(right.get(j++));
-
-            return merged;
+            List<Route> sorted = new ArrayList<>(routes);
+            RouteRanking.sort(sorted, RouteRanking.Key.DISTANCE);
+            return sorted;
         }
     }
 
@@ -947,70 +1362,52 @@ class PathfindingAlgorithms {
             route.algorithm = "Greedy";
             return route;
         }
-    }
-}
 
-// Sorting Algorithms
-class QuickSort {
-    public static void sortRoutesByDistance(List<Route> routes) {
-        if (routes.size() <= 1) return;
-        quickSortRecursive(routes, 0, routes.size() - 1, "distance");
-    }
+        // Greedy walk over the walkway graph. A sparse graph has no direct edge to fall back
+        // on, so once the walk gets stuck or too long it finishes along the shortest path.
+        public static Route findGreedyRoute(String from, String to, CampusGraph graph) {
+            int source = graph.id(from);
+            int target = graph.id(to);
+            boolean[] visited = new boolean[graph.size()];
+            int current = source;
+            visited[current] = true;
+
+            // The finishing search below uses no routes, so the walk can grow in this
+            // thread's builder
+            CompactRoute.Builder path = CompactRoute.builder(graph).add(current);
+
+            while (current != target) {
+                int next = -1;
+                double minDistance = Double.MAX_VALUE;
 
-    private static void quickSortRecursive(List<Route> routes, int low, int high, String criteria) {
-        if (low < high) {
-            int pi = partition(routes, low, high, criteria);
-            quickSortRecursive(routes, low, pi - 1, criteria);
-            quickSortRecursive(routes, pi + 1, high, criteria);
-        }
-    }
+                for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+                    int neighbor = graph.target(e);
+                    if (!visited[neighbor] && graph.distance(e) < minDistance) {
+                        minDistance = graph.distance(e);
+                        next = neighbor;
+                    }
+                }
 
-    private static int partition(List<Route> routes, int low, int high, String criteria) {
-        double pivot = criteria.equals("distance") ? routes.get(high).totalDistance : routes.get(high).totalTime;
-        int i = low - 1;
+                if (next == -1 || path.size() >= 5) {
+                    // Finish along the shortest path to the destination
+                    ShortestPathTree tree = new DijkstraEngine(graph)
+                            .search(current, target, CampusGraph.Metric.DISTANCE);
+                    if (!tree.reaches(target)) return null;
+                    int[] rest = tree.pathTo(target);
+                    for (int i = 1; i < rest.length; i++) {
+                        path.add(rest[i]);
+                    }
+                    break;
+                }
 
-        for (int j = low; j < high; j++) {
-            double value = criteria.equals("distance") ? routes.get(j).totalDistance : routes.get(j).totalTime;
-            if (value < pivot) {
-                i++;
-                Collections.swap(routes, i, j);
+                current = next;
+                path.add(current);
+                visited[current] = true;
             }
-        }
-        Collections.swap(routes, i + 1, high);
-        return i + 1;
-    }
-}
 
-class MergeSort {
-    public static void sortRoutesByTime(List<Route> routes) {
-        if (routes.size() <= 1) return;
-        mergeSortRecursive(routes, 0, routes.size() - 1);
-    }
-
-    private static void mergeSortRecursive(List<Route> routes, int left, int right) {
-        if (left < right) {
-            int mid = left + (right - left) / 2;
-            mergeSortRecursive(routes, left, mid);
-            mergeSortRecursive(routes, mid + 1, right);
-            merge(routes, left, mid, right);
-        }
-    }
-
-    private static void merge(List<Route> routes, int left, int mid, int right) {
-        List<Route> leftList = new ArrayList<>(routes.subList(left, mid + 1));
-        List<Route> rightList = new ArrayList<>(routes.subList(mid + 1, right + 1));
-
-        int i = 0, j = 0, k = left;
-
-        while (i < leftList.size() && j < rightList.size()) {
-            if (leftList.get(i).totalTime <= rightList.get(j).totalTime) {
-                routes.set(k++, leftList.get(i++));
-            } else {
-                routes.set(k++, rightList.get(j++));
-            }
+            Route route = new Route(path.build());
+            route.algorithm = "Greedy";
+            return route;
         }
-
-        while (i < leftList.size()) routes.set(k++, leftList.get(i++));
-        while (j < rightList.size()) routes.set(k++, rightList.get(j++));
     }
-}
\ No newline at end of file
+}